@@ -0,0 +1,85 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Failures between writing the temp file and renaming it over the target
+class AtomicFileWriterTest {
+    private static final List<String> OLD = Arrays.asList("ANIME|a|Watching|3|7", "MANGA|b|Reading|10|-1");
+    private static final List<String> NEW = Arrays.asList("ANIME|a|Completed|12|9");
+
+    @TempDir
+    Path dir;
+
+    // Throws, or kills the JVM, once the temp file is written
+    static class FailingWriter extends AtomicFileWriter {
+        private final boolean halt;
+
+        FailingWriter(boolean halt) {
+            super(FsyncPolicy.ALWAYS, 1);
+            this.halt = halt;
+        }
+
+        @Override
+        void beforeMove(Path tmp) throws IOException {
+            if (halt) Runtime.getRuntime().halt(3);
+            throw new IOException("injected failure before the move");
+        }
+    }
+
+    private File writeOld() throws IOException {
+        File target = dir.resolve("alice.txt").toFile();
+        new AtomicFileWriter(AtomicFileWriter.FsyncPolicy.ALWAYS, 1).writeLines(target, OLD);
+        return target;
+    }
+
+    private String[] temps() {
+        String[] names = dir.toFile().list((d, name) -> name.endsWith(".tmp"));
+        return names == null ? new String[0] : names;
+    }
+
+    @Test
+    void failureBeforeMoveKeepsOldFileAndCleansUp() throws IOException {
+        File target = writeOld();
+        assertThrows(IOException.class, () -> new FailingWriter(false).writeLines(target, NEW));
+        assertEquals(OLD, Files.readAllLines(target.toPath()));
+        assertEquals(0, temps().length);
+    }
+
+    @Test
+    void killBeforeMoveKeepsOldFileAndLeftoverTempIsDeleted() throws Exception {
+        File target = writeOld();
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process child = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+            Crasher.class.getName(), target.getPath())
+            .redirectErrorStream(true).start();
+        assertTrue(child.waitFor(60, TimeUnit.SECONDS));
+        assertEquals(3, child.exitValue(), new String(child.getInputStream().readAllBytes()));
+
+        // the killed write left its complete temp file behind, and the old list untouched
+        assertEquals(OLD, Files.readAllLines(target.toPath()));
+        String[] leftovers = temps();
+        assertEquals(1, leftovers.length);
+        assertEquals(NEW, Files.readAllLines(dir.resolve(leftovers[0])));
+
+        AtomicFileWriter.deleteStaleTemps(target);
+        assertEquals(0, temps().length);
+        assertEquals(OLD, Files.readAllLines(target.toPath()));
+    }
+
+    // Run in a separate JVM: starts a rewrite and dies just before the rename
+    public static class Crasher {
+        public static void main(String[] args) throws IOException {
+            new FailingWriter(true).writeLines(new File(args[0]), NEW);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCatalogTest {
+    @TempDir
+    Path dir;
+
+    private static final List<String> LINES = Arrays.asList(
+        new Anime("b-2", "Fate|Zero", "https://covers.example/1.jpg", 25).toFileString(),
+        new Anime("a-1", "Pokemon: Indigo League", "https://covers.example/2.jpg", 276).toFileString(),
+        "",
+        "not a catalog line",
+        new Anime("c-3", "Back\\slash", "", 12).toFileString(),
+        // a duplicate ID: the first one wins, as with the text file
+        new Anime("a-1", "Pokemon (duplicate)", "", 1).toFileString());
+
+    private File writeText(List<String> lines) throws Exception {
+        File text = dir.resolve("anime_database.txt").toFile();
+        // in the charset the app reads catalogs with
+        Files.write(text.toPath(), lines, Charset.defaultCharset());
+        return text;
+    }
+
+    private static List<String> fileStrings(List<? extends Show> shows) {
+        List<String> lines = new ArrayList<>();
+        for (Show s : shows) lines.add(s.toFileString());
+        return lines;
+    }
+
+    private CatalogIndex<Anime> index(File text) {
+        return new CatalogIndex<>(text.getPath(), Anime::fromRecord, Anime::new);
+    }
+
+    @Test
+    void binaryCopyReadsTheSameShowsAsTheText() throws Exception {
+        File text = writeText(LINES);
+        List<String> expected = fileStrings(index(text).getAll());
+
+        File bin = BinaryCatalog.binaryFileFor(text);
+        assertEquals(4, BinaryCatalog.convert(text, bin));
+        BinaryCatalog<Anime> mapped = BinaryCatalog.openIfCurrent(bin, text, Anime::new);
+        assertNotNull(mapped);
+        assertEquals(expected, fileStrings(mapped.asList()));
+        assertEquals(index(text).findById("a-1").getTitle(), mapped.findById("a-1").getTitle());
+        assertEquals("Fate|Zero", mapped.findById("b-2").getTitle());
+        assertEquals("Back\\slash", mapped.findById("c-3").getTitle());
+        assertNull(mapped.findById("d-4"));
+        // no temp file left behind
+        assertFalse(new File(bin.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    void staleBinaryCopyIsRebuilt() throws Exception {
+        File text = writeText(LINES);
+        File bin = BinaryCatalog.binaryFileFor(text);
+        BinaryCatalog.convert(text, bin);
+
+        List<String> more = new ArrayList<>(LINES);
+        more.add(new Anime("e-5", "Mushishi", "", 26).toFileString());
+        Files.write(text.toPath(), more, Charset.defaultCharset());
+        Files.setLastModifiedTime(text.toPath(), FileTime.fromMillis(text.lastModified() + 10_000));
+        assertNull(BinaryCatalog.openIfCurrent(bin, text, Anime::new));
+
+        CatalogIndex<Anime> index = index(text);
+        assertEquals(5, index.getAll().size());
+        assertEquals("Mushishi", index.findById("e-5").getTitle());
+        BinaryCatalog<Anime> rebuilt = BinaryCatalog.openIfCurrent(bin, text, Anime::new);
+        assertNotNull(rebuilt);
+        assertEquals(5, rebuilt.size());
+    }
+
+    @Test
+    void truncatedBinaryCopyIsNotUsed() throws Exception {
+        File text = writeText(LINES);
+        List<String> expected = fileStrings(index(text).getAll());
+        File bin = BinaryCatalog.binaryFileFor(text);
+        BinaryCatalog.convert(text, bin);
+        try (RandomAccessFile f = new RandomAccessFile(bin, "rw")) {
+            f.setLength(f.length() - 7);
+        }
+
+        assertNull(BinaryCatalog.openIfCurrent(bin, text, Anime::new));
+        assertEquals(expected, fileStrings(index(text).getAll()));
+    }
+
+    @Test
+    void textIsParsedWhenTheBinaryCopyCannotBeRebuilt() throws Exception {
+        File text = writeText(LINES);
+        List<String> expected = fileStrings(index(text).getAll());
+        // a directory where the .bin should be: neither mappable nor replaceable
+        File bin = BinaryCatalog.binaryFileFor(text);
+        assertTrue(bin.mkdir());
+        Files.write(bin.toPath().resolve("keep"), new byte[1]);
+
+        assertEquals(expected, fileStrings(index(text).getAll()));
+    }
+}
@@ -0,0 +1,47 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogIndexTest {
+    @TempDir
+    Path dir;
+
+    private static String line(String title) {
+        return new Anime(UUID.randomUUID().toString(), title, "https://covers.example/a.jpg", 12).toFileString();
+    }
+
+    @Test
+    void fileIsCheckedAtMostOncePerInterval() throws Exception {
+        Path file = dir.resolve("anime_database.txt");
+        Files.write(file, Arrays.asList(line("First")));
+        CatalogIndex<Anime> index = new CatalogIndex<>(file.toString(), Anime::fromRecord, Anime::new);
+        assertEquals(1, index.getAll().size());
+
+        Files.write(file, Arrays.asList(line("First"), line("Second")));
+        // within the interval the loaded copy is served without looking at the file
+        assertEquals(1, index.getAll().size());
+
+        Thread.sleep(1100);
+        assertEquals(2, index.getAll().size());
+    }
+
+    @Test
+    void invalidateRereadsAtOnce() throws IOException {
+        Path file = dir.resolve("anime_database.txt");
+        Files.write(file, Arrays.asList(line("First")));
+        CatalogIndex<Anime> index = new CatalogIndex<>(file.toString(), Anime::fromRecord, Anime::new);
+        assertEquals(1, index.getAll().size());
+
+        Files.write(file, Arrays.asList(line("First"), line("Second")));
+        index.invalidate();
+        assertEquals(2, index.size());
+        assertEquals(2, index.getAll().size());
+    }
+}
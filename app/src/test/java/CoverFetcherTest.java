@@ -0,0 +1,137 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// CoverFetcher against a local stub server
+class CoverFetcherTest {
+    private static final byte[] COVER = "not really a png".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // fails twice with a 503, then serves the cover
+        server.createContext("/flaky.jpg", exchange -> {
+            int n = requests.incrementAndGet();
+            if (n <= 2) respond(exchange, 503, null, new byte[0]);
+            else respond(exchange, 200, null, COVER);
+        });
+        // always a 500
+        server.createContext("/broken.jpg", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 500, null, new byte[0]);
+        });
+        // serves the cover with an ETag, and a 304 when the client already has it
+        server.createContext("/etag.jpg", exchange -> {
+            requests.incrementAndGet();
+            String tag = exchange.getRequestHeaders().getFirst("If-None-Match");
+            ifNoneMatch.add(String.valueOf(tag));
+            if ("\"v1\"".equals(tag)) respond(exchange, 304, "\"v1\"", null);
+            else respond(exchange, 200, "\"v1\"", COVER);
+        });
+        // answers after the client has given up
+        server.createContext("/slow.jpg", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, null, COVER);
+        });
+        server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int code, String etag, byte[] body) throws IOException {
+        if (etag != null) exchange.getResponseHeaders().set("ETag", etag);
+        exchange.sendResponseHeaders(code, body == null || body.length == 0 ? -1 : body.length);
+        if (body != null && body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static CoverFetcher fetcher(long requestTimeoutMs, int retries) {
+        return new CoverFetcher(Duration.ofSeconds(2), Duration.ofMillis(requestTimeoutMs), retries);
+    }
+
+    @Test
+    void retriesServerErrors() throws IOException {
+        CoverFetcher.Result result = fetcher(5000, 2).fetch(url("/flaky.jpg"), null);
+        assertArrayEquals(COVER, result.data);
+        assertFalse(result.notModified);
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void givesUpAfterTheRetries() {
+        IOException e = assertThrows(IOException.class, () -> fetcher(5000, 1).fetch(url("/broken.jpg"), null));
+        assertTrue(e.getMessage().contains("HTTP 500"), e.getMessage());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void revalidatesWithTheETagStoredOnDisk() throws IOException {
+        ImageCache cache = new ImageCache(1 << 20, 1 << 20, dir.toFile());
+        CoverFetcher fetcher = fetcher(5000, 0);
+        String url = url("/etag.jpg");
+
+        CoverFetcher.Result first = fetcher.fetch(url, cache.readDisk(url));
+        assertArrayEquals(COVER, first.data);
+        assertEquals("\"v1\"", first.etag);
+        cache.writeDisk(url, first.data, first.etag, first.lastModified);
+
+        // a later run: the validators come back from the .meta file
+        ImageCache reopened = new ImageCache(1 << 20, 1 << 20, dir.toFile());
+        ImageCache.DiskEntry cached = reopened.readDisk(url);
+        assertNotNull(cached);
+        assertEquals("\"v1\"", cached.etag);
+        CoverFetcher.Result second = fetcher.fetch(url, cached);
+        assertTrue(second.notModified);
+        assertNull(second.data);
+        assertEquals(List.of("null", "\"v1\""), ifNoneMatch);
+    }
+
+    @Test
+    void timesOut() {
+        long start = System.nanoTime();
+        assertThrows(HttpTimeoutException.class, () -> fetcher(300, 0).fetch(url("/slow.jpg"), null));
+        assertTrue(System.nanoTime() - start < 1_500_000_000L, "should not wait for the slow response");
+        assertEquals(1, requests.get());
+    }
+}
@@ -0,0 +1,50 @@
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdtMonitorTest {
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // The event that opens a nested loop (as a modal dialog does) is not charged for the loop
+    @Test
+    void nestedLoopIsNotCountedAsBlocked() throws Exception {
+        EdtMonitor monitor = new EdtMonitor(Long.MAX_VALUE / 1_000_000);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(monitor);
+        try {
+            // a running EDT may still take one event from the old queue before it switches over
+            SwingUtilities.invokeAndWait(() -> { });
+            SwingUtilities.invokeAndWait(() -> {
+                sleep(30);
+                SecondaryLoop loop = Toolkit.getDefaultToolkit().getSystemEventQueue().createSecondaryLoop();
+                Thread user = new Thread(() -> {
+                    // the user looks at the dialog, clicks something slow, then closes it
+                    sleep(300);
+                    SwingUtilities.invokeLater(() -> sleep(40));
+                    sleep(300);
+                    SwingUtilities.invokeLater(loop::exit);
+                });
+                user.start();
+                loop.enter();
+                sleep(20);
+            });
+            // invokeAndWait returns before the monitor has recorded the event; wait for that
+            SwingUtilities.invokeAndWait(() -> { });
+        } finally {
+            monitor.uninstall();
+        }
+
+        // outer event: 30 + 20 ms; nested: 40 ms and the exit; not the 600 ms of waiting
+        assertTrue(monitor.events() >= 2, "events: " + monitor.events());
+        assertTrue(monitor.maxMillis() >= 40 && monitor.maxMillis() < 200, "worst: " + monitor.maxMillis() + " ms");
+        assertTrue(monitor.totalMillis() >= 90 && monitor.totalMillis() < 300, "total: " + monitor.totalMillis() + " ms");
+    }
+}
@@ -0,0 +1,45 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageCacheTest {
+    @TempDir
+    Path dir;
+
+    private long bytesOnDisk() {
+        long total = 0;
+        File[] files = dir.toFile().listFiles();
+        if (files != null) for (File f : files) total += f.length();
+        return total;
+    }
+
+    @Test
+    void diskBytesCountMetaFilesAndOverwrites() {
+        ImageCache cache = new ImageCache(1 << 20, 1 << 20, dir.toFile());
+        cache.writeDisk("https://covers.example/a.jpg", new byte[5000], "\"v1\"", null);
+        cache.writeDisk("https://covers.example/b.jpg", new byte[3000], null, "Mon, 01 Jan 2024 00:00:00 GMT");
+        assertEquals(bytesOnDisk(), cache.getDiskBytes());
+
+        // a smaller cover and a longer ETag for the same URL
+        cache.writeDisk("https://covers.example/a.jpg", new byte[1000], "\"version-two\"", null);
+        assertEquals(bytesOnDisk(), cache.getDiskBytes());
+
+        cache.markValidated("https://covers.example/b.jpg");
+        assertEquals(bytesOnDisk(), cache.getDiskBytes());
+    }
+
+    @Test
+    void rewritingOneCoverDoesNotEvictOthers() {
+        ImageCache cache = new ImageCache(1 << 20, 10_000, dir.toFile());
+        cache.writeDisk("https://covers.example/a.jpg", new byte[3000], null, null);
+        cache.writeDisk("https://covers.example/b.jpg", new byte[3000], null, null);
+        // counted once, this stays well under the limit however often it is rewritten
+        for (int i = 0; i < 5; i++) cache.writeDisk("https://covers.example/b.jpg", new byte[3000], null, null);
+        assertNotNull(cache.readDisk("https://covers.example/a.jpg"));
+        assertEquals(bytesOnDisk(), cache.getDiskBytes());
+    }
+}
@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleSearchIndexTest {
+    private static TitleSearchIndex<Anime> index(String... titles) {
+        List<Anime> shows = new ArrayList<>();
+        for (int i = 0; i < titles.length; i++) shows.add(new Anime("id" + i, titles[i], "", 12));
+        return new TitleSearchIndex<>(shows);
+    }
+
+    private static List<String> titles(List<Anime> shows) {
+        List<String> titles = new ArrayList<>();
+        for (Anime a : shows) titles.add(a.getTitle());
+        return titles;
+    }
+
+    @Test
+    void exactThenTitlePrefixThenWordPrefixThenSubstring() {
+        TitleSearchIndex<Anime> index = index("Minaruto", "Boruto: Naruto Next Generations", "Naruto Shippuden", "Naruto");
+        assertEquals(Arrays.asList("Naruto", "Naruto Shippuden", "Boruto: Naruto Next Generations", "Minaruto"),
+            titles(index.search("naruto", 10)));
+    }
+
+    @Test
+    void caseAndAccentsAreFolded() {
+        TitleSearchIndex<Anime> index = index("Shing\u00e9ki no Ky\u00f4jin", "Pokemon", "KIMI NO NA WA");
+        assertEquals(Arrays.asList("Shing\u00e9ki no Ky\u00f4jin"), titles(index.search("shingeki no kyojin", 5)));
+        assertEquals(Arrays.asList("Pokemon"), titles(index.search("Pok\u00e9mon", 5)));
+        assertEquals(Arrays.asList("KIMI NO NA WA"), titles(index.search("kimi no", 5)));
+    }
+
+    @Test
+    void titleWithALeadingTheIsFoundEitherWay() {
+        TitleSearchIndex<Anime> index = index("The Promised Neverland", "Promise of Wizard");
+        assertEquals(Arrays.asList("The Promised Neverland"), titles(index.search("the promised", 5)));
+        // the title prefix match comes before the one after "The "
+        assertEquals(Arrays.asList("Promise of Wizard", "The Promised Neverland"), titles(index.search("promise", 5)));
+    }
+
+    @Test
+    void punctuationIncludingAPipeActsAsASpace() {
+        TitleSearchIndex<Anime> index = index("Fate|Zero", "Re:Zero");
+        assertEquals(Arrays.asList("Fate|Zero"), titles(index.search("fate zero", 5)));
+        assertEquals(Arrays.asList("Fate|Zero"), titles(index.search("Fate/Zero", 5)));
+        assertEquals(Arrays.asList("Re:Zero"), titles(index.search("re zero", 5)));
+    }
+
+    @Test
+    void shortQueriesOnlyMatchWordStarts() {
+        TitleSearchIndex<Anime> index = index("Minaruto", "Nana", "Bleach", "One Piece");
+        assertEquals(Arrays.asList("Nana"), titles(index.search("na", 5)));
+        assertEquals(Arrays.asList("One Piece"), titles(index.search("p", 5)));
+        // three characters and up also match inside words
+        assertEquals(Arrays.asList("Minaruto"), titles(index.search("aru", 5)));
+    }
+
+    @Test
+    void substringCandidatesAreRechecked() {
+        // "abc bcd" has both trigrams of "abcd", but not next to each other
+        TitleSearchIndex<Anime> index = index("abc bcd", "xabcdx");
+        assertEquals(Arrays.asList("xabcdx"), titles(index.search("abcd", 5)));
+    }
+
+    @Test
+    void tiesKeepCatalogOrderAndLimitCuts() {
+        List<Anime> shows = Arrays.asList(new Anime("a", "Clannad", "", 23), new Anime("b", "clannad", "", 24),
+            new Anime("c", "CLANNAD", "", 1), new Anime("d", "Clannad After Story", "", 24));
+        TitleSearchIndex<Anime> index = new TitleSearchIndex<>(shows);
+        List<Anime> two = index.search("clannad", 2);
+        assertEquals("a", two.get(0).getId());
+        assertEquals("b", two.get(1).getId());
+        assertEquals(4, index.search("clannad", 10).size());
+    }
+
+    @Test
+    void hugeLimitIsClampedAndEmptyQueriesFindNothing() {
+        TitleSearchIndex<Anime> index = index("Mushishi", "Monster");
+        assertEquals(2, index.search("m", Integer.MAX_VALUE).size());
+        assertTrue(index.search("", 5).isEmpty());
+        assertTrue(index.search(" -- ", 5).isEmpty());
+        assertTrue(index.search("m", 0).isEmpty());
+        assertTrue(new TitleSearchIndex<Anime>(new ArrayList<>()).search("m", 5).isEmpty());
+    }
+}
@@ -0,0 +1,31 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserIdRepairTest {
+    private static UserIdRepair.Resolver<Anime> resolver(List<Anime> catalog) {
+        TitleSearchIndex<Anime> index = new TitleSearchIndex<>(catalog);
+        return new UserIdRepair.Resolver<>(catalog, index::search);
+    }
+
+    @Test
+    void storedTitlesResolveExactlyWithTheOrBySearch() {
+        List<Anime> catalog = Arrays.asList(new Anime("a", "The Promised Neverland", "", 12),
+            new Anime("b", "Mob Psycho 100", "", 12), new Anime("c", "Vinland Saga", "", 24));
+        UserIdRepair.Resolver<Anime> resolver = resolver(catalog);
+        assertEquals("c", resolver.resolve("vinland saga").getId());
+        assertEquals("a", resolver.resolve("Promised Neverland").getId());
+        assertEquals("b", resolver.resolve("psycho").getId());
+        assertNull(resolver.resolve("Clannad"));
+    }
+
+    // The index does not look inside words for one or two characters; the old contains() lookup did
+    @Test
+    void shortStoredTextFallsBackToContains() {
+        List<Anime> catalog = Arrays.asList(new Anime("a", "Bleach", "", 366), new Anime("b", "Kaiji", "", 26));
+        assertEquals("b", resolver(catalog).resolve("ij").getId());
+    }
+}
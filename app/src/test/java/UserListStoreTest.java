@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserListStoreTest {
+    @TempDir
+    Path dir;
+
+    private UserListStore store(boolean journaled) {
+        return new UserListStore(dir.toString() + "/", journaled, 1 << 20,
+            new AtomicFileWriter(AtomicFileWriter.FsyncPolicy.NEVER, 1));
+    }
+
+    private static UserShowEntry entry(String showId, String status, int progress) {
+        UserShowEntry entry = new UserShowEntry(status, progress, -1);
+        entry.setType("ANIME");
+        entry.setShowId(showId);
+        return entry;
+    }
+
+    @Test
+    void appendAfterTornJournalRecordSurvivesReload() throws IOException {
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+        Files.write(dir.resolve("alice.txt"), new byte[0]);
+        // a crash in the middle of an append left a record without its line break
+        Files.write(dir.resolve("alice.journal"), ("U|ANIME|" + first + "|Watch").getBytes(StandardCharsets.UTF_8));
+
+        UserListStore store = store(true);
+        UserList list = store.load("alice");
+        assertNull(list.get("ANIME", first));
+        UserShowEntry added = entry(second, "Watching", 5);
+        store.add("alice", added);
+        list.add(added);
+
+        UserList reloaded = store(true).load("alice");
+        UserShowEntry entry = reloaded.get("ANIME", second);
+        assertNotNull(entry);
+        assertEquals("Watching", entry.getStatus());
+        assertEquals(5, entry.getProgress());
+        assertEquals(1, reloaded.size());
+    }
+
+    @Test
+    void completeJournalIsLeftAlone() throws IOException {
+        String id = UUID.randomUUID().toString();
+        Files.write(dir.resolve("bob.txt"), new byte[0]);
+        File journal = dir.resolve("bob.journal").toFile();
+        String record = "U|ANIME|" + id + "|Completed|12|8" + System.lineSeparator();
+        Files.write(journal.toPath(), record.getBytes(StandardCharsets.UTF_8));
+
+        UserList list = store(true).load("bob");
+        assertEquals(12, list.get("ANIME", id).getProgress());
+        assertEquals(record.length(), journal.length());
+    }
+}
@@ -0,0 +1,72 @@
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserListTest {
+    private static UserShowEntry entry(String showId, String status, int progress, int rating) {
+        UserShowEntry entry = new UserShowEntry(status, progress, rating);
+        entry.setType("ANIME");
+        entry.setShowId(showId);
+        return entry;
+    }
+
+    @Test
+    void ratingsOutsideTheRangeAreRejected() {
+        UserList list = new UserList();
+        String id = UUID.randomUUID().toString();
+        assertThrows(IllegalArgumentException.class, () -> list.add(entry(id, "Watching", 1, 11)));
+        assertThrows(IllegalArgumentException.class, () -> list.add(entry(id, "Watching", 1, 300)));
+        assertFalse(list.contains("ANIME", id));
+
+        list.add(entry(id, "Watching", 1, 7));
+        assertThrows(IllegalArgumentException.class, () -> list.put(entry(id, "Watching", 2, -2)));
+        assertEquals(7, list.get("ANIME", id).getRating());
+        list.put(entry(id, "Completed", 12, -1));
+        assertEquals(-1, list.get("ANIME", id).getRating());
+    }
+
+    @Test
+    void lineWithAnOutOfRangeRatingIsKeptVerbatim() {
+        String line = "ANIME|" + UUID.randomUUID() + "|Completed|12|42";
+        RecordReader r = RecordReader.forLine(line);
+        UserList list = new UserList();
+        list.addRecord(r);
+        assertEquals(0, list.size());
+        assertEquals(java.util.Collections.singletonList(line), list.toLines());
+    }
+
+    // The column layout should stay far below the ~350 bytes per entry of a map of entry objects
+    @Test
+    void footprintPerEntryIsSmall() {
+        int n = 100_000;
+        String[] statuses = {"Watching", "Completed", "Plan to Watch", "Dropped"};
+        Random random = new Random(3);
+        long before = usedHeapAfterGc();
+        UserList list = new UserList();
+        for (int i = 0; i < n; i++) {
+            String id = new UUID(random.nextLong(), random.nextLong()).toString();
+            list.add(entry(id, statuses[i % statuses.length], random.nextInt(100), random.nextInt(12) - 1));
+        }
+        long bytesPerEntry = (usedHeapAfterGc() - before) / n;
+        Reference.reachabilityFence(list);
+        assertEquals(n, list.size());
+        assertTrue(bytesPerEntry < 80, "UserList took " + bytesPerEntry + " bytes per entry");
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        // a few rounds, as one System.gc() may not collect everything
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,38 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteCoalescerTest {
+    @Test
+    void burstEndsInOneWrite() {
+        AtomicInteger writes = new AtomicInteger();
+        AtomicInteger last = new AtomicInteger();
+        try (WriteCoalescer coalescer = new WriteCoalescer(60_000)) {
+            for (int i = 1; i <= 10; i++) {
+                int value = i;
+                coalescer.schedule("alice", "ANIME|x", () -> {
+                    writes.incrementAndGet();
+                    last.set(value);
+                });
+            }
+            assertEquals(1, coalescer.pendingCount());
+        }
+        assertEquals(1, writes.get());
+        assertEquals(10, last.get());
+    }
+
+    @Test
+    void closeWritesWhatIsPendingAndStopsTheTimer() {
+        AtomicInteger writes = new AtomicInteger();
+        WriteCoalescer coalescer = new WriteCoalescer(60_000);
+        coalescer.schedule("alice", "ANIME|a", writes::incrementAndGet);
+        coalescer.schedule("bob", "ANIME|b", writes::incrementAndGet);
+        coalescer.close();
+        assertEquals(2, writes.get());
+        assertEquals(0, coalescer.pendingCount());
+        assertThrows(java.util.concurrent.RejectedExecutionException.class,
+            () -> coalescer.schedule("alice", "ANIME|a", writes::incrementAndGet));
+    }
+}
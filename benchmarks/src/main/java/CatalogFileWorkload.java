@@ -0,0 +1,42 @@
+import bench.Workloads;
+
+import java.io.File;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Workloads.CatalogFile: an anime catalog from DatasetGenerator (seeded)
+ * loaded with ParallelCatalogLoader on a pool of its own.
+ */
+public class CatalogFileWorkload implements Workloads.CatalogFile {
+    private Path dir;
+    private File file;
+    private ForkJoinPool pool;
+
+    @Override
+    public void open(int catalogSize, int threads) throws Exception {
+        dir = Files.createTempDirectory("tracker-load-bench");
+        new DatasetGenerator(11, 0).generate(dir.toFile(), catalogSize, 0, 0);
+        file = dir.resolve("anime_database.txt").toFile();
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    @Override
+    public long fileBytes() {
+        return file.length();
+    }
+
+    @Override
+    public int load() throws Exception {
+        return ParallelCatalogLoader.load(file, Anime::fromRecord, pool).size();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (pool != null) pool.shutdown();
+        try (java.util.stream.Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+import bench.Workloads;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Workloads.Covers: a loopback HttpServer that waits latencyMs before
+ * answering each request with the same 225x318 JPEG, and the fetch, decode
+ * and scale steps of ImageLoader's Fetch.run on an IoExecutors executor,
+ * bounded by a semaphore as ImageLoader is. No disk cache, so every cover
+ * goes to the server.
+ */
+public class CoverLoadWorkload implements Workloads.Covers {
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private ExecutorService executor;
+    private Semaphore permits;
+    private CoverFetcher fetcher;
+    private String[] urls;
+
+    @Override
+    public void open(int coverCount, long latencyMs, String mode, int maxConcurrent) throws Exception {
+        byte[] jpeg = coverJpeg(225, 318);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverThreads = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "stub-cover-server");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(serverThreads);
+        server.createContext("/covers/", exchange -> {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "image/jpeg");
+            exchange.sendResponseHeaders(200, jpeg.length);
+            exchange.getResponseBody().write(jpeg);
+            exchange.close();
+        });
+        server.start();
+
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/covers/";
+        urls = new String[coverCount];
+        for (int i = 0; i < coverCount; i++) urls[i] = base + i + ".jpg";
+        executor = IoExecutors.newIoExecutor("bench-cover-loader", maxConcurrent, mode);
+        permits = new Semaphore(maxConcurrent);
+        fetcher = new CoverFetcher(Duration.ofSeconds(5), Duration.ofSeconds(30), 0);
+    }
+
+    private static byte[] coverJpeg(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, Color.ORANGE, width, height, Color.BLUE));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    @Override
+    public int loadAll() throws Exception {
+        List<Future<Integer>> loads = new ArrayList<>(urls.length);
+        for (String url : urls) {
+            loads.add(executor.submit(() -> {
+                byte[] data;
+                permits.acquire();
+                try {
+                    data = fetcher.fetch(url, null).data;
+                } finally {
+                    permits.release();
+                }
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+                return ImageLoader.scale(image, 101, 140).getWidth();
+            }));
+        }
+        int pixels = 0;
+        for (Future<Integer> load : loads) pixels += load.get();
+        return pixels;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+}
@@ -0,0 +1,48 @@
+import bench.Workloads;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+// Workloads.Images: ImageLoader.scale on a generated cover-like image, and decoding it from JPEG
+public class ImageWorkload implements Workloads.Images {
+    private BufferedImage source;
+    private byte[] jpeg;
+
+    @Override
+    public void open(int sourceWidth, int sourceHeight) throws Exception {
+        source = new BufferedImage(sourceWidth, sourceHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = source.createGraphics();
+        // gradients and text, so scaling does real filtering work
+        g.setPaint(new GradientPaint(0, 0, Color.ORANGE, sourceWidth, sourceHeight, Color.BLUE));
+        g.fillRect(0, 0, sourceWidth, sourceHeight);
+        g.setColor(Color.WHITE);
+        g.setFont(new Font("SansSerif", Font.BOLD, Math.max(12, sourceWidth / 10)));
+        g.drawString("Cover", sourceWidth / 8, sourceHeight / 2);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(source, "jpg", out);
+        jpeg = out.toByteArray();
+    }
+
+    @Override
+    public Object scale(int width, int height) {
+        return ImageLoader.scale(source, width, height);
+    }
+
+    @Override
+    public Object decodeAndScaleSmooth(int width, int height) throws Exception {
+        BufferedImage img = ImageIO.read(new ByteArrayInputStream(jpeg));
+        // ImageIcon waits for the lazy scaled image to be produced, as the old loader did
+        return new ImageIcon(img.getScaledInstance(width, height, Image.SCALE_SMOOTH));
+    }
+
+    @Override
+    public Object decodeAndScale(int width, int height) throws Exception {
+        BufferedImage img = ImageIO.read(new ByteArrayInputStream(jpeg));
+        return new ImageIcon(ImageLoader.scale(img, width, height));
+    }
+}
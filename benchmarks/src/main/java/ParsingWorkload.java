@@ -0,0 +1,107 @@
+import bench.Workloads;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Workloads.Parsing over lines from DatasetGenerator (seeded): realistic
+ * titles and cover URLs, some with accents. Lines with an escaped '|' are
+ * left out, since String.split cannot parse them and the comparison would
+ * not be like for like.
+ */
+public class ParsingWorkload implements Workloads.Parsing {
+    private String[] catalogLines;
+    private String catalogText;
+    private String[] userLines;
+    private String userText;
+
+    @Override
+    public void open(int lineCount) throws Exception {
+        Path dir = Files.createTempDirectory("tracker-parse-bench");
+        try {
+            // a few spare titles to make up for the skipped escaped ones
+            new DatasetGenerator(7, 0).generate(dir.toFile(), lineCount + lineCount / 50 + 10, 0, 0);
+            List<String> lines = new ArrayList<>();
+            for (String line : Files.readAllLines(dir.resolve("anime_database.txt"), Charset.defaultCharset())) {
+                if (line.indexOf('\\') < 0 && lines.size() < lineCount) lines.add(line);
+            }
+            catalogLines = lines.toArray(new String[0]);
+        } finally {
+            try (java.util.stream.Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+        catalogText = String.join("\n", catalogLines) + "\n";
+
+        Random random = new Random(7);
+        EntryStatus[] statuses = EntryStatus.values();
+        userLines = new String[catalogLines.length];
+        for (int i = 0; i < userLines.length; i++) {
+            String id = catalogLines[i].substring(0, catalogLines[i].indexOf('|'));
+            userLines[i] = "ANIME|" + id + "|" + statuses[random.nextInt(statuses.length)].getLabel() + "|"
+                + random.nextInt(30) + "|" + (random.nextInt(12) - 1);
+        }
+        userText = String.join("\n", userLines) + "\n";
+    }
+
+    // The catalog parser before RecordReader
+    @Override
+    public int splitCatalog() {
+        int sum = 0;
+        for (String line : catalogLines) {
+            String[] parts = line.split("\\|");
+            sum += new Anime(parts[0], parts[1], parts[2], Integer.parseInt(parts[3])).getTotalEpisodes();
+        }
+        return sum;
+    }
+
+    // Anime.fromFileString: a RecordReader per line
+    @Override
+    public int readerPerLineCatalog() {
+        int sum = 0;
+        for (String line : catalogLines) sum += Anime.fromFileString(line).getTotalEpisodes();
+        return sum;
+    }
+
+    // One reader over the whole file, as CatalogIndex loads it
+    @Override
+    public int readerStreamCatalog() throws IOException {
+        int sum = 0;
+        try (RecordReader r = new RecordReader(new StringReader(catalogText))) {
+            while (r.next()) sum += Anime.fromRecord(r).getTotalEpisodes();
+        }
+        return sum;
+    }
+
+    // The user file parser before RecordReader
+    @Override
+    public int splitUserList() {
+        int sum = 0;
+        for (String line : userLines) {
+            String[] parts = line.split("\\|");
+            UserShowEntry entry = new UserShowEntry(parts[2], Integer.parseInt(parts[3]), Integer.parseInt(parts[4]));
+            entry.setType(parts[0]);
+            entry.setShowId(parts[1]);
+            sum += entry.getProgress();
+        }
+        return sum;
+    }
+
+    // One reader over the whole file, as UserListStore loads it
+    @Override
+    public int readerStreamUserList() throws IOException {
+        int sum = 0;
+        try (RecordReader r = new RecordReader(new StringReader(userText))) {
+            while (r.next()) sum += UserList.parseRecord(r, 0).getProgress();
+        }
+        return sum;
+    }
+
+    @Override
+    public void close() {
+        catalogLines = null;
+        userLines = null;
+    }
+}
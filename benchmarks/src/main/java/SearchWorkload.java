@@ -0,0 +1,45 @@
+import bench.Workloads;
+
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.List;
+
+// Workloads.Search: a TitleSearchIndex over an anime catalog from DatasetGenerator (seeded)
+public class SearchWorkload implements Workloads.Search {
+    private List<Anime> catalog;
+    private TitleSearchIndex<Anime> index;
+
+    @Override
+    public void open(int titleCount) throws Exception {
+        Path dir = Files.createTempDirectory("tracker-search-bench");
+        try {
+            new DatasetGenerator(5, 0).generate(dir.toFile(), titleCount, 0, 0);
+            catalog = new CatalogIndex<>(dir.resolve("anime_database.txt").toString(), Anime::fromRecord, Anime::new).getAll();
+        } finally {
+            try (java.util.stream.Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+        index = new TitleSearchIndex<>(catalog);
+    }
+
+    @Override
+    public Object build() {
+        return new TitleSearchIndex<>(catalog);
+    }
+
+    @Override
+    public int search(String query, int limit) {
+        return index.search(query, limit).size();
+    }
+
+    @Override
+    public int scan(String query, int limit) {
+        String q = query.toLowerCase();
+        int found = 0;
+        for (Anime a : catalog) {
+            if (a.getTitle().toLowerCase().contains(q) && ++found == limit) break;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,98 @@
+import bench.Workloads;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Workloads.Tracker over a throwaway data directory with a synthetic catalog
+ * (seeded, so every run sees the same data) and one user, "bench".
+ */
+public class TrackerWorkload implements Workloads.Tracker {
+    private static final String USER = "bench";
+    private static final String[] STATUSES = {"Watching", "Completed", "Plan to Watch", "Dropped"};
+
+    private Path dataDir;
+    private TrackerAPI api;
+    private String[] catalogLines;
+    private String[] listedIds;
+
+    @Override
+    public void open(int catalogSize, int listSize, long writeDelayMs) throws Exception {
+        dataDir = Files.createTempDirectory("tracker-bench");
+        Files.createDirectories(dataDir.resolve("users"));
+        Random random = new Random(42);
+
+        catalogLines = new String[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            String id = new UUID(random.nextLong(), random.nextLong()).toString();
+            catalogLines[i] = new Anime(id, "Synthetic Title " + i, "https://covers.example/" + i + ".jpg",
+                12 + random.nextInt(300)).toFileString();
+        }
+        Files.write(dataDir.resolve("anime_database.txt"), Arrays.asList(catalogLines));
+        Files.write(dataDir.resolve("manga_database.txt"), Collections.emptyList());
+
+        // a list of distinct shows, in a random order
+        List<Integer> picks = new ArrayList<>();
+        for (int i = 0; i < catalogSize; i++) picks.add(i);
+        Collections.shuffle(picks, random);
+        listedIds = new String[Math.min(listSize, catalogSize)];
+        List<String> userLines = new ArrayList<>();
+        for (int i = 0; i < listedIds.length; i++) {
+            listedIds[i] = Anime.fromFileString(catalogLines[picks.get(i)]).getId();
+            userLines.add("ANIME|" + listedIds[i] + "|" + STATUSES[random.nextInt(STATUSES.length)] + "|"
+                + random.nextInt(12) + "|" + (random.nextInt(12) - 1));
+        }
+        Files.write(dataDir.resolve("users").resolve(USER + ".txt"), userLines);
+        // no repair scan: every ID is a catalog ID
+        Files.createFile(dataDir.resolve("users").resolve(USER + ".clean"));
+
+        api = new TrackerAPI(dataDir.toString(), writeDelayMs);
+        api.openUser(USER);
+        api.getAllAnime();
+    }
+
+    @Override
+    public int getAllAnime() {
+        return api.getAllAnime().size();
+    }
+
+    @Override
+    public int loadCatalogCold() {
+        // the catalog TrackerAPI.getAllAnime reads on first use (a whole TrackerAPI would also
+        // start a writer thread per call)
+        return new CatalogIndex<>(dataDir.resolve("anime_database.txt").toString(), Anime::fromRecord, Anime::new)
+            .getAll().size();
+    }
+
+    @Override
+    public int parseAnimeLine(int i) {
+        return Anime.fromFileString(catalogLines[i % catalogLines.length]).getTotalEpisodes();
+    }
+
+    @Override
+    public int getUserAnime() {
+        int entries = 0;
+        for (List<UserShowEntry> byStatus : api.getUserAnimeByStatus(USER).values()) entries += byStatus.size();
+        return entries;
+    }
+
+    @Override
+    public boolean addDuplicate(int i) throws IOException {
+        return api.addToUserList(USER, listedIds[i % listedIds.length], "Watching", "ANIME", 0);
+    }
+
+    @Override
+    public void updateEntry(int i) throws IOException {
+        api.updateUserEntry(USER, listedIds[i % listedIds.length], "ANIME", "Watching", i & 0xFF, 7);
+    }
+
+    @Override
+    public void close() throws IOException {
+        api.closeUser(USER);
+        api.close();
+        try (java.util.stream.Stream<Path> files = Files.walk(dataDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
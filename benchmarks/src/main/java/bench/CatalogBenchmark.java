@@ -0,0 +1,51 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog reads: the cached getAllAnime() every screen calls, a cold load
+ * (parse of the whole file) and parsing a single catalog line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CatalogBenchmark {
+    @Param({"10000", "100000"})
+    int catalogSize;
+
+    private Workloads.Tracker tracker;
+    private int line;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        tracker = Workloads.tracker();
+        tracker.open(catalogSize, 100, 500);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        tracker.close();
+    }
+
+    @Benchmark
+    public int getAllAnime() {
+        return tracker.getAllAnime();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int loadCatalogCold() {
+        return tracker.loadCatalogCold();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int animeFromFileString() {
+        return tracker.parseAnimeLine(line++);
+    }
+}
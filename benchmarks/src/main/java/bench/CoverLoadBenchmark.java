@@ -0,0 +1,48 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time until every cover of 500 cards is fetched, decoded and scaled, from a
+ * local server that waits latencyMs per request, on virtual threads and on a
+ * platform pool (IoExecutors). Both are bounded by the same number of
+ * concurrent fetches, as in ImageLoader (tracker.imageLoader.maxConcurrent).
+ * "virtual" needs JDK 21+; on older JDKs it falls back to the platform pool
+ * and says so on stderr.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CoverLoadBenchmark {
+    @Param({"platform", "virtual"})
+    String executor;
+
+    @Param({"6", "64"})
+    int maxConcurrent;
+
+    @Param({"50"})
+    long latencyMs;
+
+    private Workloads.Covers covers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        covers = Workloads.covers();
+        covers.open(500, latencyMs, executor, maxConcurrent);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        covers.close();
+    }
+
+    @Benchmark
+    public int loadAllCovers() throws Exception {
+        return covers.loadAll();
+    }
+}
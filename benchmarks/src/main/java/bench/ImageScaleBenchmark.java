@@ -0,0 +1,55 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ImageLoader.scale from typical cover sizes to a dashboard card poster
+ * (101x140) and a search result thumbnail (40x56). Headless, so images are
+ * plain BufferedImages rather than screen-compatible ones.
+ *
+ * The decodeAndScale pairs start from the same JPEG bytes: the old path
+ * (ImageIO.read, then getScaledInstance with SCALE_SMOOTH, still used by
+ * UIHelpers.createImageLabel) against the current one (ImageIO.read, then
+ * ImageLoader.scale).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ImageScaleBenchmark {
+    @Param({"225x318", "1000x1414"})
+    String source;
+
+    private Workloads.Images images;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String[] size = source.split("x");
+        images = Workloads.images();
+        images.open(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+    }
+
+    @Benchmark
+    public Object scaleToCard() {
+        return images.scale(101, 140);
+    }
+
+    @Benchmark
+    public Object scaleToThumbnail() {
+        return images.scale(40, 56);
+    }
+
+    @Benchmark
+    public Object decodeAndScaleSmoothToCard() throws Exception {
+        return images.decodeAndScaleSmooth(101, 140);
+    }
+
+    @Benchmark
+    public Object decodeAndScaleToCard() throws Exception {
+        return images.decodeAndScale(101, 140);
+    }
+}
@@ -0,0 +1,46 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cold catalog load through ParallelCatalogLoader on 1, 2, 4 and all
+ * cores ("max"), for catalogs of 10k, 100k and 1M shows (about 1, 10 and
+ * 100 MB). 1 thread is the plain line-by-line read, so the rows compare
+ * directly, and the sizes show where splitting the file starts to pay off
+ * (ParallelCatalogLoader reads files under 1 MB on one thread). On a machine
+ * with fewer cores than threads the extra threads only add overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ParallelLoadBenchmark {
+    @Param({"1", "2", "4", "max"})
+    String threads;
+
+    @Param({"10000", "100000", "1000000"})
+    int catalogSize;
+
+    private Workloads.CatalogFile catalog;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        int n = "max".equals(threads) ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(threads);
+        catalog = Workloads.catalogFile();
+        catalog.open(catalogSize, n);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        catalog.close();
+    }
+
+    @Benchmark
+    public int load() throws Exception {
+        return catalog.load();
+    }
+}
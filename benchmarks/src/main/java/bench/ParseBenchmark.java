@@ -0,0 +1,61 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * String.split against RecordReader on catalog and user list lines. Scores
+ * are lines per second; run with "-prof gc" to see the bytes allocated per
+ * line (gc.alloc.rate.norm):
+ *
+ *   java -jar benchmarks/target/benchmarks.jar ParseBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ParseBenchmark.LINES)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ParseBenchmark {
+    static final int LINES = 10_000;
+
+    private Workloads.Parsing parsing;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        parsing = Workloads.parsing();
+        parsing.open(LINES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        parsing.close();
+    }
+
+    @Benchmark
+    public int catalogSplit() {
+        return parsing.splitCatalog();
+    }
+
+    @Benchmark
+    public int catalogRecordReaderPerLine() {
+        return parsing.readerPerLineCatalog();
+    }
+
+    @Benchmark
+    public int catalogRecordReaderStream() throws Exception {
+        return parsing.readerStreamCatalog();
+    }
+
+    @Benchmark
+    public int userListSplit() {
+        return parsing.splitUserList();
+    }
+
+    @Benchmark
+    public int userListRecordReaderStream() throws Exception {
+        return parsing.readerStreamUserList();
+    }
+}
@@ -0,0 +1,78 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TitleSearchIndex on a 100k-title generated catalog, limit 20 as in the
+ * add-to-list picker: a title prefix, a word in the middle of titles, a
+ * match inside a word (the trigram stage), a one-letter query, an accented
+ * query and one that matches nothing. scanNoMatch is the linear
+ * toLowerCase().contains() lookup the picker used before the index, which
+ * is its worst case; build is the one-off cost after each catalog load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TitleSearchBenchmark {
+    private static final int LIMIT = 20;
+
+    @Param({"100000"})
+    int titleCount;
+
+    private Workloads.Search search;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        search = Workloads.search();
+        search.open(titleCount);
+    }
+
+    @Benchmark
+    public int titlePrefix() {
+        return search.search("shingeki no", LIMIT);
+    }
+
+    @Benchmark
+    public int wordPrefix() {
+        return search.search("alchemist", LIMIT);
+    }
+
+    @Benchmark
+    public int insideWord() {
+        return search.search("lchemi", LIMIT);
+    }
+
+    @Benchmark
+    public int oneLetter() {
+        return search.search("k", LIMIT);
+    }
+
+    @Benchmark
+    public int accented() {
+        return search.search("Pok\u00e9mon caf\u00e9", LIMIT);
+    }
+
+    @Benchmark
+    public int noMatch() {
+        return search.search("xyzzy plugh", LIMIT);
+    }
+
+    @Benchmark
+    public int scanNoMatch() {
+        return search.scan("xyzzy plugh", LIMIT);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public Object build() {
+        return search.build();
+    }
+}
@@ -0,0 +1,54 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user operations against a 10k-title catalog: building the dashboard
+ * grouping, the duplicate check of "add to list", and an entry edit, with
+ * deferred writes (the default 500 ms) and with every edit written through
+ * (writeDelayMs 0).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class UserListBenchmark {
+    @Param({"100", "2000"})
+    int listSize;
+
+    @Param({"0", "500"})
+    long writeDelayMs;
+
+    private Workloads.Tracker tracker;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        tracker = Workloads.tracker();
+        tracker.open(10_000, listSize, writeDelayMs);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        tracker.close();
+    }
+
+    @Benchmark
+    public int getUserAnime() {
+        return tracker.getUserAnime();
+    }
+
+    @Benchmark
+    public boolean addToUserListDuplicate() throws Exception {
+        return tracker.addDuplicate(next++);
+    }
+
+    @Benchmark
+    public void updateUserEntry() throws Exception {
+        tracker.updateEntry(next++);
+    }
+}
@@ -0,0 +1,134 @@
+package bench;
+
+/**
+ * The app's classes are in the default package, which code in a named package
+ * (as JMH requires for benchmarks) cannot refer to. So each benchmark talks to
+ * an interface declared here, implemented by a default-package class of this
+ * module and created by name. After warmup the calls are ordinary monomorphic
+ * interface calls, which the JIT inlines.
+ */
+public final class Workloads {
+    private Workloads() {
+    }
+
+    // TrackerAPI over a synthetic data directory
+    public interface Tracker {
+        // Writes a catalog of catalogSize anime and a user with listSize entries, and opens it
+        void open(int catalogSize, int listSize, long writeDelayMs) throws Exception;
+
+        int getAllAnime();
+
+        // Reads the catalog from disk as getAllAnime does the first time
+        int loadCatalogCold();
+
+        int parseAnimeLine(int i);
+
+        int getUserAnime();
+
+        boolean addDuplicate(int i) throws Exception;
+
+        void updateEntry(int i) throws Exception;
+
+        void close() throws Exception;
+    }
+
+    // Catalog and user list line parsing, the old String.split way and with RecordReader
+    public interface Parsing {
+        // Generates lineCount catalog lines and lineCount user list lines
+        void open(int lineCount) throws Exception;
+
+        int splitCatalog();
+
+        int readerPerLineCatalog();
+
+        int readerStreamCatalog() throws Exception;
+
+        int splitUserList();
+
+        int readerStreamUserList() throws Exception;
+
+        void close() throws Exception;
+    }
+
+    // ParallelCatalogLoader on a generated catalog file
+    public interface CatalogFile {
+        // Writes a catalog of catalogSize shows; threads 1 loads on the calling thread
+        void open(int catalogSize, int threads) throws Exception;
+
+        // Size of the catalog file, in bytes
+        long fileBytes();
+
+        int load() throws Exception;
+
+        void close() throws Exception;
+    }
+
+    // ImageLoader's cover scaling
+    // Cover downloads for a screen of cards, as ImageLoader runs them, from a local server with latency
+    public interface Covers {
+        // mode is an IoExecutors mode ("platform" or "virtual"); maxConcurrent bounds the fetches
+        void open(int coverCount, long latencyMs, String mode, int maxConcurrent) throws Exception;
+
+        // Fetches, decodes and scales every cover; returns once all are done
+        int loadAll() throws Exception;
+
+        void close() throws Exception;
+    }
+
+    // TitleSearchIndex over a generated catalog
+    public interface Search {
+        void open(int titleCount) throws Exception;
+
+        // Builds a new index over the catalog (done once per catalog load)
+        Object build();
+
+        int search(String query, int limit);
+
+        // The toLowerCase().contains() scan the add-to-list picker used before the index
+        int scan(String query, int limit);
+    }
+
+    public interface Images {
+        void open(int sourceWidth, int sourceHeight) throws Exception;
+
+        Object scale(int width, int height);
+
+        // ImageIO.read of the cover as a JPEG, then getScaledInstance(SCALE_SMOOTH) in an ImageIcon (the old path)
+        Object decodeAndScaleSmooth(int width, int height) throws Exception;
+
+        // ImageIO.read of the same JPEG, then ImageLoader.scale in an ImageIcon (the current path)
+        Object decodeAndScale(int width, int height) throws Exception;
+    }
+
+    public static Search search() {
+        return create("SearchWorkload", Search.class);
+    }
+
+    public static Covers covers() {
+        return create("CoverLoadWorkload", Covers.class);
+    }
+
+    public static Tracker tracker() {
+        return create("TrackerWorkload", Tracker.class);
+    }
+
+    public static Parsing parsing() {
+        return create("ParsingWorkload", Parsing.class);
+    }
+
+    public static CatalogFile catalogFile() {
+        return create("CatalogFileWorkload", CatalogFile.class);
+    }
+
+    public static Images images() {
+        return create("ImageWorkload", Images.class);
+    }
+
+    private static <T> T create(String className, Class<T> type) {
+        try {
+            return type.cast(Class.forName(className).getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + className, e);
+        }
+    }
+}
@@ -34,8 +34,9 @@ public class AdminActions {
 
                 String id = app.api.generateAnimeId();
                 Anime anime = new Anime(id, title, imageUrl, episodes);
-                app.api.addAnime(anime);
-                JOptionPane.showMessageDialog(app, "Anime added to database! ID: " + id);
+                SwingAsync.run(app, app.async.addAnime(anime),
+                    done -> JOptionPane.showMessageDialog(app, "Anime added to database! ID: " + id),
+                    ex -> JOptionPane.showMessageDialog(app, "Error adding anime: " + ex.getMessage()));
             } catch (NumberFormatException nfe) {
                 JOptionPane.showMessageDialog(app, "Total Episodes must be a number.");
             } catch (Exception ex) {
@@ -78,8 +79,9 @@ public class AdminActions {
 
                 String id = app.api.generateMangaId();
                 Manga manga = new Manga(id, title, imageUrl, chapters);
-                app.api.addManga(manga);
-                JOptionPane.showMessageDialog(app, "Manga added to database! ID: " + id);
+                SwingAsync.run(app, app.async.addManga(manga),
+                    done -> JOptionPane.showMessageDialog(app, "Manga added to database! ID: " + id),
+                    ex -> JOptionPane.showMessageDialog(app, "Error adding manga: " + ex.getMessage()));
             } catch (NumberFormatException nfe) {
                 JOptionPane.showMessageDialog(app, "Total Chapters must be a number.");
             } catch (Exception ex) {
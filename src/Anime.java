@@ -17,11 +17,19 @@ public class Anime extends Show {
 
     @Override
     public String toFileString() {
-        return id + "|" + title + "|" + imageUrl + "|" + totalEpisodes;
+        return RecordReader.escape(id) + "|" + RecordReader.escape(title) + "|"
+            + RecordReader.escape(imageUrl) + "|" + totalEpisodes;
     }
 
     public static Anime fromFileString(String line) {
-        String[] parts = line.split("\\|");
-        return new Anime(parts[0], parts[1], parts[2], Integer.parseInt(parts[3]));
+        return fromRecord(RecordReader.forLine(line));
+    }
+
+    // ID|TITLE|IMAGE_URL|TOTAL from the reader's current line; null if it is malformed.
+    public static Anime fromRecord(RecordReader r) {
+        if (r.fieldCount() < 4) return null;
+        int total = r.intField(3, Integer.MIN_VALUE);
+        if (total == Integer.MIN_VALUE) return null;
+        return new Anime(r.string(0), r.string(1), r.string(2), total);
     }
 }
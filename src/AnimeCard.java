@@ -3,12 +3,18 @@ import java.awt.*;
 import java.awt.event.*;
 
 public class AnimeCard extends Card {
+    private Anime anime;
+    private UserShowEntry entry;
+
     public AnimeCard(Anime anime, UserShowEntry entry, String status, AnimeTrackerApp app) {
         super(anime.getTitle(), anime.getImageUrl(), entry.getProgress(), anime.getTotalEpisodes(), entry.getRating(), "TV");
+        this.anime = anime;
+        this.entry = entry;
+        this.status = status;
 
         // Click opens edit dialog
         MouseAdapter clickListener = new MouseAdapter() {
-            public void mouseClicked(MouseEvent e) { EditDialogs.editAnime(app, anime.getId(), status); }
+            public void mouseClicked(MouseEvent e) { EditDialogs.editAnime(app, AnimeCard.this.anime.getId(), getStatus()); }
             public void mouseEntered(MouseEvent e) { setBorderOnInnerCard(true); }
             public void mouseExited(MouseEvent e) { setBorderOnInnerCard(false); }
         };
@@ -17,28 +23,39 @@ public class AnimeCard extends Card {
 
         // +1 button behavior
         this.inc.addActionListener(ae -> {
-            int newVal = Math.min(anime.getTotalEpisodes(), entry.getProgress() + 1);
-            entry.setProgress(newVal);
+            // work on a copy so the dashboard can see which tab the entry is moving from
+            UserShowEntry updated = this.entry.copy();
+            int newVal = Math.min(this.anime.getTotalEpisodes(), updated.getProgress() + 1);
+            updated.setProgress(newVal);
 
-            if (newVal >= anime.getTotalEpisodes() && !"Completed".equals(entry.getStatus())) {
+            if (newVal >= this.anime.getTotalEpisodes() && !"Completed".equals(updated.getStatus())) {
                 int choice = JOptionPane.showConfirmDialog(app,
                     "You've watched all episodes. Mark as Completed?",
                     "Complete Anime", JOptionPane.YES_NO_OPTION);
                 if (choice == JOptionPane.YES_OPTION) {
-                    entry.setStatus("Completed");
+                    updated.setStatus("Completed");
                 }
             }
 
-            this.progressLabel.setText(newVal + " / " + anime.getTotalEpisodes());
-            this.progressBar.setValue(newVal);
+            setProgress(newVal, this.anime.getTotalEpisodes());
+            // a second click before the write lands continues from this value
+            this.entry = updated;
 
-            try {
-                app.api.updateUserEntry(app.currentUser, anime.getId(), "ANIME", entry.getStatus(), newVal, entry.getRating());
-                app.showUserDashboard();
-            } catch (Exception ex) { }
+            String id = this.anime.getId();
+            SwingAsync.run(app, app.async.updateUserEntry(app.currentUser, id, "ANIME", updated.getStatus(), newVal, updated.getRating()),
+                done -> app.refreshEntry("ANIME", id),
+                // put the card back to what is on disk
+                ex -> app.refreshEntry("ANIME", id));
         });
     }
 
+    @Override
+    public void bind(Show show, UserShowEntry entry) {
+        this.anime = (Anime) show;
+        this.entry = entry;
+        bindFields(anime.getTitle(), anime.getImageUrl(), entry.getProgress(), anime.getTotalEpisodes(), entry.getRating(), entry.getStatus());
+    }
+
     private void setBorderOnInnerCard(boolean highlight) {
         // the RoundedPanel is the first child; set its border
         Component c = getComponentCount() > 0 ? getComponent(0) : null;
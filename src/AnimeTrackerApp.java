@@ -2,21 +2,29 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 
-import java.util.*;
-import java.util.List;
-
 // Main Application
 public class AnimeTrackerApp extends JFrame {
     TrackerAPI api;
+    // The same API, called off the EDT; listeners use this for anything that touches disk
+    AsyncTrackerAPI async;
     String currentUser;
     private JPanel mainPanel;
     private CardLayout cardLayout;
+    private DashboardPanel dashboard;
     
     public AnimeTrackerApp() {
         api = new TrackerAPI();
+        async = new AsyncTrackerAPI(api);
         setTitle("Anime and Manga Tracker");
         setSize(900, 700);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // the shutdown hook would also do this; saving here keeps it ahead of other hooks
+                api.flushPendingWrites();
+            }
+        });
         setLocationRelativeTo(null);
         
         cardLayout = new CardLayout();
@@ -101,187 +109,63 @@ public class AnimeTrackerApp extends JFrame {
     private void createAccount() {
         String username = JOptionPane.showInputDialog(this, "Enter username:");
         if (username != null && !username.trim().isEmpty()) {
-            if (api.createUser(username)) {
-                JOptionPane.showMessageDialog(this, "Account created successfully!");
-                currentUser = username;
-                showUserDashboard();
-            } else {
-                JOptionPane.showMessageDialog(this, "Username already exists!");
-            }
+            SwingAsync.run(this, async.createUser(username), created -> {
+                if (created) {
+                    JOptionPane.showMessageDialog(this, "Account created successfully!");
+                    currentUser = username;
+                    showUserDashboard();
+                } else {
+                    JOptionPane.showMessageDialog(this, "Username already exists!");
+                }
+            });
         }
     }
     
     private void login() {
         String username = JOptionPane.showInputDialog(this, "Enter username:");
         if (username != null && !username.trim().isEmpty()) {
-            if (api.userExists(username)) {
-                currentUser = username;
-                showUserDashboard();
-            } else {
-                JOptionPane.showMessageDialog(this, "User not found!");
-            }
+            SwingAsync.run(this, async.userExists(username), exists -> {
+                if (exists) {
+                    currentUser = username;
+                    showUserDashboard();
+                } else {
+                    JOptionPane.showMessageDialog(this, "User not found!");
+                }
+            });
         }
     }
     
+    /**
+     * Shows the dashboard for currentUser. The panel is created once and reused
+     * across logins; it shows a loading state while the list is read off the EDT.
+     */
     public void showUserDashboard() {
-        JPanel dashboard = createUserDashboard();
-        mainPanel.add(dashboard, "DASHBOARD");
+        if (dashboard == null) {
+            dashboard = new DashboardPanel(this);
+            mainPanel.add(dashboard, "DASHBOARD");
+        }
+        String user = currentUser;
+        dashboard.showLoading(user);
         cardLayout.show(mainPanel, "DASHBOARD");
-    }
-    
-    private JPanel createUserDashboard() {
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.setBackground(Theme.BACKGROUND);
-        
-        JLabel welcomeLabel = new JLabel("Welcome, " + currentUser + "!", SwingConstants.CENTER);
-        welcomeLabel.setFont(new Font("Arial", Font.BOLD, 24));
-        welcomeLabel.setForeground(Theme.PRIMARY);
-        welcomeLabel.setBorder(BorderFactory.createEmptyBorder(20, 0, 20, 0));
-        panel.add(welcomeLabel, BorderLayout.NORTH);
-        
-        JTabbedPane tabbedPane = new JTabbedPane();
-        tabbedPane.setFont(new Font("Arial", Font.PLAIN, 14));
-        
-        // Anime tabs
-        tabbedPane.addTab("Watching", createAnimeStatusPanel("Watching"));
-        tabbedPane.addTab("Completed Anime", createAnimeStatusPanel("Completed"));
-        tabbedPane.addTab("Plan to Watch", createAnimeStatusPanel("Plan to Watch"));
-        tabbedPane.addTab("Dropped Anime", createAnimeStatusPanel("Dropped"));
-        
-        // Manga tabs
-        tabbedPane.addTab("Reading", createMangaStatusPanel("Reading"));
-        tabbedPane.addTab("Completed Manga", createMangaStatusPanel("Completed"));
-        tabbedPane.addTab("Plan to Read", createMangaStatusPanel("Plan to Read"));
-        tabbedPane.addTab("Dropped Manga", createMangaStatusPanel("Dropped"));
-        
-        panel.add(tabbedPane, BorderLayout.CENTER);
-        
-        JPanel bottomPanel = new JPanel(new FlowLayout());
-        bottomPanel.setBackground(Theme.BACKGROUND);
-        
-        JButton addAnimeBtn = UIHelpers.createStyledButton("Add Anime");
-        addAnimeBtn.addActionListener(e -> AddToListActions.addAnimeToList(this));
-        
-        JButton addMangaBtn = UIHelpers.createStyledButton("Add Manga");
-        addMangaBtn.addActionListener(e -> AddToListActions.addMangaToList(this));
-        
-        JButton logoutBtn = UIHelpers.createStyledButton("Logout");
-        logoutBtn.addActionListener(e -> {
-            currentUser = null;
-            cardLayout.show(mainPanel, "MAIN_MENU");
+        SwingAsync.run(this, async.openDashboard(user), snapshot -> {
+            // ignore a load that finished after logout or a user switch
+            if (user.equals(currentUser)) dashboard.showSnapshot(snapshot);
         });
-        
-        bottomPanel.add(addAnimeBtn);
-        bottomPanel.add(addMangaBtn);
-        bottomPanel.add(logoutBtn);
-        
-        panel.add(bottomPanel, BorderLayout.SOUTH);
-        return panel;
     }
-    
-    private JPanel createAnimeStatusPanel(String status) {
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.setBackground(Color.WHITE);
-        
-        // Build a vertical list of rows where each row is a 1x2 grid.
-        // This enforces exactly two columns while preserving each card's preferred height.
-        JPanel gridPanel = new JPanel();
-        gridPanel.setLayout(new BoxLayout(gridPanel, BoxLayout.Y_AXIS));
-        gridPanel.setBackground(Color.WHITE);
-        gridPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-
-        Map<String, List<UserShowEntry>> userAnime = api.getUserAnime(currentUser);
-        List<Anime> allAnime = api.getAllAnime();
-
-        List<UserShowEntry> entries = userAnime.get(status);
-        List<JPanel> cardList = new ArrayList<>();
-        if (entries != null) {
-            for (UserShowEntry entry : entries) {
-                for (Anime anime : allAnime) {
-                    if (anime.getId().equals(entry.getShowId())) {
-                        JPanel card = UIHelpers.createAnimeCard(anime, entry, status, this);
-                        Dimension pref = card.getPreferredSize();
-                        card.setMaximumSize(new Dimension(Integer.MAX_VALUE, pref.height));
-                        card.setAlignmentY(Component.TOP_ALIGNMENT);
-                        cardList.add(card);
-                    }
-                }
-            }
-        }
 
-        // Group cards into rows of two
-        for (int i = 0; i < cardList.size(); i += 2) {
-            JPanel row = new JPanel(new GridLayout(1, 2, 10, 10));
-            row.setBackground(Color.WHITE);
-            JPanel left = cardList.get(i);
-            JPanel right = (i + 1 < cardList.size()) ? cardList.get(i + 1) : new JPanel();
-            right.setBackground(Color.WHITE);
-            row.add(left);
-            row.add(right);
-            Dimension pref = left.getPreferredSize();
-            row.setMaximumSize(new Dimension(Integer.MAX_VALUE, pref.height));
-            gridPanel.add(row);
-            gridPanel.add(Box.createVerticalStrut(10));
-        }
-
-        JScrollPane scrollPane = new JScrollPane(gridPanel);
-        scrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
-        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
-        panel.add(scrollPane, BorderLayout.CENTER);
-        
-        return panel;
+    // Updates the dashboard after a single entry was added, edited or removed.
+    public void refreshEntry(String type, String showId) {
+        if (dashboard == null || currentUser == null) return;
+        String user = currentUser;
+        SwingAsync.run(this, async.loadItem(user, type, showId), item -> {
+            if (user.equals(currentUser)) dashboard.refreshEntry(type, showId, item);
+        });
     }
-    
-    private JPanel createMangaStatusPanel(String status) {
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.setBackground(Color.WHITE);
-
-        // Use a 2-column GridLayout so cards form two columns and grow horizontally
-        // Build a vertical list of rows where each row is a 1x2 grid.
-        JPanel gridPanel = new JPanel();
-        gridPanel.setLayout(new BoxLayout(gridPanel, BoxLayout.Y_AXIS));
-        gridPanel.setBackground(Color.WHITE);
-        gridPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-
-        Map<String, List<UserShowEntry>> userManga = api.getUserManga(currentUser);
-        List<Manga> allManga = api.getAllManga();
-
-        List<UserShowEntry> entries = userManga.get(status);
-        List<JPanel> cardList = new ArrayList<>();
-        if (entries != null) {
-            for (UserShowEntry entry : entries) {
-                for (Manga manga : allManga) {
-                    if (manga.getId().equals(entry.getShowId())) {
-                        JPanel card = UIHelpers.createMangaCard(manga, entry, status, this);
-                        Dimension pref = card.getPreferredSize();
-                        card.setMaximumSize(new Dimension(Integer.MAX_VALUE, pref.height));
-                        card.setAlignmentY(Component.TOP_ALIGNMENT);
-                        cardList.add(card);
-                    }
-                }
-            }
-        }
-
-        for (int i = 0; i < cardList.size(); i += 2) {
-            JPanel row = new JPanel(new GridLayout(1, 2, 10, 10));
-            row.setBackground(Color.WHITE);
-            JPanel left = cardList.get(i);
-            JPanel right = (i + 1 < cardList.size()) ? cardList.get(i + 1) : new JPanel();
-            right.setBackground(Color.WHITE);
-            row.add(left);
-            row.add(right);
-            Dimension pref = left.getPreferredSize();
-            row.setMaximumSize(new Dimension(Integer.MAX_VALUE, pref.height));
-            gridPanel.add(row);
-            gridPanel.add(Box.createVerticalStrut(10));
-        }
 
-        JScrollPane scrollPane = new JScrollPane(gridPanel);
-        scrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
-        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
-        panel.add(scrollPane, BorderLayout.CENTER);
-
-        return panel;
+    public void logout() {
+        async.closeUser(currentUser);
+        currentUser = null;
+        cardLayout.show(mainPanel, "MAIN_MENU");
     }
     
     private JPanel createAdminPanel() {
@@ -320,6 +204,7 @@ public class AnimeTrackerApp extends JFrame {
     
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
+            EdtMonitor.installIfEnabled();
             AnimeTrackerApp app = new AnimeTrackerApp();
             app.setVisible(true);
         });
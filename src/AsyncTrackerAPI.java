@@ -0,0 +1,136 @@
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs TrackerAPI calls on a background thread and returns CompletableFutures,
+ * so Swing listeners never wait on file reads or rewrites. Apply the results
+ * on the EDT with SwingAsync.
+ *
+ * Calls run one at a time, in the order they were made, on a single daemon
+ * thread: a +1 followed by an edit is written in that order, and a read made
+ * after a write sees it, exactly as when the calls were synchronous.
+ */
+public class AsyncTrackerAPI {
+    private final TrackerAPI api;
+    // A single-thread executor, built directly so its queue can be measured
+    private final ThreadPoolExecutor io = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "tracker-io");
+            t.setDaemon(true);
+            return t;
+        });
+    // Time a call waits behind earlier ones, with -Dtracker.metrics=true (see Metrics)
+    private static final Metrics.Timer QUEUE_WAIT = Metrics.timer("AsyncTrackerAPI.queueWait");
+
+    // A TrackerAPI call that may throw (IOException etc.)
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws Exception;
+    }
+
+    public AsyncTrackerAPI(TrackerAPI api) {
+        this.api = api;
+        Metrics.gauge("AsyncTrackerAPI.queueDepth", () -> io.getQueue().size());
+    }
+
+    public TrackerAPI getApi() {
+        return api;
+    }
+
+    // Runs any call on the I/O thread; exceptions complete the future exceptionally.
+    public <T> CompletableFuture<T> submit(Call<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long queued = Metrics.start();
+        io.execute(() -> {
+            QUEUE_WAIT.stop(queued);
+            try {
+                future.complete(call.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    // Catalog
+
+    public CompletableFuture<List<Anime>> getAllAnime() {
+        return submit(api::getAllAnime);
+    }
+
+    public CompletableFuture<List<Manga>> getAllManga() {
+        return submit(api::getAllManga);
+    }
+
+    public CompletableFuture<Integer> countAnime() {
+        return submit(api::countAnime);
+    }
+
+    public CompletableFuture<Integer> countManga() {
+        return submit(api::countManga);
+    }
+
+    public CompletableFuture<List<Anime>> searchAnime(String query, int limit) {
+        return submit(() -> api.searchAnime(query, limit));
+    }
+
+    public CompletableFuture<List<Manga>> searchManga(String query, int limit) {
+        return submit(() -> api.searchManga(query, limit));
+    }
+
+    public CompletableFuture<Void> addAnime(Anime anime) {
+        return submit(() -> { api.addAnime(anime); return null; });
+    }
+
+    public CompletableFuture<Void> addManga(Manga manga) {
+        return submit(() -> { api.addManga(manga); return null; });
+    }
+
+    // Users
+
+    public CompletableFuture<Boolean> createUser(String username) {
+        return submit(() -> api.createUser(username));
+    }
+
+    public CompletableFuture<Boolean> userExists(String username) {
+        return submit(() -> api.userExists(username));
+    }
+
+    // Loads the user's list and builds everything the dashboard shows (login).
+    public CompletableFuture<DashboardSnapshot> openDashboard(String username) {
+        return submit(() -> {
+            api.openUser(username);
+            return DashboardSnapshot.build(api, username);
+        });
+    }
+
+    public CompletableFuture<Void> closeUser(String username) {
+        return submit(() -> { api.closeUser(username); return null; });
+    }
+
+    // List entries
+
+    public CompletableFuture<Boolean> addToUserList(String username, String showId, String status, String type, int progress, int rating) {
+        return submit(() -> api.addToUserList(username, showId, status, type, progress, rating));
+    }
+
+    public CompletableFuture<Void> updateUserEntry(String username, String showId, String type, String newStatus, int newProgress, int newRating) {
+        return submit(() -> { api.updateUserEntry(username, showId, type, newStatus, newProgress, newRating); return null; });
+    }
+
+    public CompletableFuture<Void> removeFromUserList(String username, String showId, String type) {
+        return submit(() -> { api.removeFromUserList(username, showId, type); return null; });
+    }
+
+    /**
+     * Looks up a list entry together with its catalog show. Either part is
+     * null if missing: no entry means it was removed from the list.
+     */
+    public CompletableFuture<DashboardSnapshot.Item<Show>> loadItem(String username, String type, String showId) {
+        return submit(() -> {
+            UserShowEntry entry = api.getUserShowEntry(username, showId, type);
+            Show show = "ANIME".equals(type) ? api.findAnimeById(showId) : api.findMangaById(showId);
+            return new DashboardSnapshot.Item<>(show, entry);
+        });
+    }
+}
@@ -0,0 +1,180 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.List;
+
+/**
+ * Crash-safe file writes.
+ *
+ * A rewrite never truncates the live file: the new contents go to a temp file
+ * in the same directory, which is fsynced and then moved over the target with
+ * an atomic rename. A crash at any point leaves either the old file or the new
+ * one, never a half-written mix.
+ *
+ * The fsync policy trades durability for throughput:
+ * ALWAYS syncs every write, BATCHED syncs every batchSize-th write (useful for
+ * bulk imports), NEVER leaves it to the OS. The rename is atomic in every mode.
+ */
+public class AtomicFileWriter {
+    public enum FsyncPolicy { ALWAYS, BATCHED, NEVER }
+
+    private static final Metrics.Timer FSYNC = Metrics.timer("AtomicFileWriter.fsync");
+
+    private volatile FsyncPolicy policy;
+    private final int batchSize;
+    private int writesSinceSync;
+
+    public AtomicFileWriter(FsyncPolicy policy, int batchSize) {
+        this.policy = policy;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public void setPolicy(FsyncPolicy policy) { this.policy = policy; }
+
+    // Reads -Dtracker.fsync=always|batched|never (default always).
+    public static FsyncPolicy policyFromProperty(String name) {
+        String value = System.getProperty(name, "always");
+        try {
+            return FsyncPolicy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return FsyncPolicy.ALWAYS;
+        }
+    }
+
+    // Replaces target with the given lines via temp file + fsync + atomic move.
+    public void writeLines(File target, List<String> lines) throws IOException {
+        Path path = target.toPath().toAbsolutePath();
+        Path dir = path.getParent();
+        Path tmp = Files.createTempFile(dir, path.getFileName().toString() + ".", ".tmp");
+        boolean sync = shouldSync();
+        TrackerEvents.FileWrite event = new TrackerEvents.FileWrite();
+        event.begin();
+        long written = 0;
+        try {
+            try (FileOutputStream out = new FileOutputStream(tmp.toFile());
+                 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out))) {
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+                writer.flush();
+                if (Metrics.ENABLED || event.isEnabled()) written = out.getChannel().position();
+                Metrics.fileBytes(target, "bytesWritten", written);
+                if (sync) sync(out);
+            }
+            beforeMove(tmp);
+            move(tmp, path);
+            if (sync) syncDirectory(dir);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        commit(event, target, "rewrite", written, sync);
+    }
+
+    // Appends one line (journal records, new list entries), synced per the policy.
+    public void appendLine(File target, String line) throws IOException {
+        boolean sync = shouldSync();
+        TrackerEvents.FileWrite event = new TrackerEvents.FileWrite();
+        event.begin();
+        long written = 0;
+        try (FileOutputStream out = new FileOutputStream(target, true);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out))) {
+            // in append mode the position starts at the end of the file
+            boolean measure = Metrics.ENABLED || event.isEnabled();
+            long before = measure ? out.getChannel().position() : 0;
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+            if (measure) written = out.getChannel().position() - before;
+            Metrics.fileBytes(target, "bytesWritten", written);
+            if (sync) sync(out);
+        }
+        commit(event, target, "append", written, sync);
+    }
+
+    private static void commit(TrackerEvents.FileWrite event, File target, String mode, long bytes, boolean sync) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.file = target.getPath();
+        event.mode = mode;
+        event.bytes = bytes;
+        event.fsync = sync;
+        event.commit();
+    }
+
+    /**
+     * Cuts file back to just after its last line break, dropping a last line
+     * that an append killed midway left without one. Does nothing if the file
+     * is missing or already ends with a line break.
+     */
+    public static void truncateTornLine(File file) throws IOException {
+        if (!file.isFile()) return;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            ByteBuffer one = ByteBuffer.allocate(1);
+            long keep = end;
+            while (keep > 0) {
+                one.clear();
+                if (channel.read(one, keep - 1) != 1) break;
+                if (one.get(0) == '\n') break;
+                keep--;
+            }
+            if (keep < end) {
+                channel.truncate(keep);
+                channel.force(true);
+            }
+        }
+    }
+
+    // Removes temp files left next to target by a write that was killed midway.
+    public static void deleteStaleTemps(File target) {
+        File dir = target.getAbsoluteFile().getParentFile();
+        String prefix = target.getName() + ".";
+        File[] leftovers = dir == null ? null : dir.listFiles((d, name) -> name.startsWith(prefix) && name.endsWith(".tmp"));
+        if (leftovers == null) return;
+        for (File f : leftovers) f.delete();
+    }
+
+    private static void sync(FileOutputStream out) throws IOException {
+        long start = Metrics.start();
+        out.getFD().sync();
+        FSYNC.stop(start);
+    }
+
+    private synchronized boolean shouldSync() {
+        switch (policy) {
+            case ALWAYS:
+                return true;
+            case BATCHED:
+                if (++writesSinceSync >= batchSize) {
+                    writesSinceSync = 0;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    // Called once the temp file is complete, just before it replaces the target (fault-injection tests)
+    void beforeMove(Path tmp) throws IOException {
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Makes the rename itself durable. Not supported on every platform (e.g. Windows), so best effort.
+    private static void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // ignore; the file contents are already synced
+        }
+    }
+}
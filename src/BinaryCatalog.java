@@ -0,0 +1,233 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * A catalog converted to a binary file (anime_database.bin next to
+ * anime_database.txt) and read through a memory mapping, so opening it costs
+ * the same for ten shows or a million: nothing is parsed up front, and a show
+ * object is only created when one is asked for.
+ *
+ * Layout (big-endian):
+ *   header   int magic "TCAT", int version, int count, int heap size in bytes,
+ *            long length and long lastModified of the text file it came from
+ *   records  count x (int id, int title, int imageUrl offsets into the heap, int total),
+ *            in text file order
+ *   index    count x int record numbers, sorted by ID (then by record, so the
+ *            first of duplicate IDs wins, as with the text file)
+ *   heap     strings as int byte length + UTF-8 bytes
+ *
+ * The text file stays the master copy (the admin screen appends to it). A
+ * binary file whose recorded length and modification time do not match the
+ * text file, or whose size does not match its header (a torn copy), is not
+ * used; CatalogIndex then converts the text file again. To create the binary
+ * files in the first place:
+ *
+ *   java BinaryCatalog                          convert both catalogs
+ *   java BinaryCatalog anime_database.txt ...   convert the given files
+ */
+public class BinaryCatalog<T extends Show> {
+    private static final int MAGIC = 0x54434154; // "TCAT"
+    // 2: the header records the heap size, so a truncated file is detected
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int RECORD_BYTES = 16;
+
+    // Creates a show from its fields (the Anime / Manga constructors)
+    @FunctionalInterface
+    public interface Factory<T> {
+        T create(String id, String title, String imageUrl, int total);
+    }
+
+    private final ByteBuffer data;
+    private final Factory<T> factory;
+    private final int count;
+    private final int indexStart;
+    private final int heapStart;
+
+    private BinaryCatalog(ByteBuffer data, Factory<T> factory) {
+        this.data = data;
+        this.factory = factory;
+        this.count = data.getInt(8);
+        this.indexStart = HEADER_BYTES + count * RECORD_BYTES;
+        this.heapStart = indexStart + count * 4;
+    }
+
+    // The binary file for a text catalog: the same name ending in .bin
+    public static File binaryFileFor(File textFile) {
+        String name = textFile.getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return new File(textFile.getParentFile(), base + ".bin");
+    }
+
+    /**
+     * Maps binaryFile if it exists and was converted from textFile as it is
+     * now; returns null otherwise (missing, stale or not a catalog file).
+     */
+    public static <T extends Show> BinaryCatalog<T> openIfCurrent(File binaryFile, File textFile, Factory<T> factory) {
+        if (!binaryFile.isFile()) return null;
+        try (FileChannel channel = FileChannel.open(binaryFile.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) return null;
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) return null;
+            if (data.getLong(16) != textFile.length() || data.getLong(24) != textFile.lastModified()) return null;
+            int count = data.getInt(8), heapBytes = data.getInt(12);
+            if (count < 0 || heapBytes < 0 || channel.size() != HEADER_BYTES + count * 20L + heapBytes) return null;
+            return new BinaryCatalog<>(data, factory);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // The show at position i in text file order.
+    public T get(int i) {
+        if (i < 0 || i >= count) throw new IndexOutOfBoundsException("Index: " + i + ", size: " + count);
+        int record = HEADER_BYTES + i * RECORD_BYTES;
+        return factory.create(string(data.getInt(record)), string(data.getInt(record + 4)),
+            string(data.getInt(record + 8)), data.getInt(record + 12));
+    }
+
+    // Returns the show with the given ID, or null; a binary search over the ID index.
+    public T findById(String id) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareId(recordAt(mid), key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        if (lo < count && compareId(recordAt(lo), key) == 0) return get(recordAt(lo));
+        return null;
+    }
+
+    // Every show in text file order, each created when it is read.
+    public List<T> asList() {
+        class View extends AbstractList<T> implements RandomAccess {
+            public T get(int i) { return BinaryCatalog.this.get(i); }
+            public int size() { return count; }
+        }
+        return new View();
+    }
+
+    private int recordAt(int indexPosition) {
+        return data.getInt(indexStart + indexPosition * 4);
+    }
+
+    // Compares a record's ID bytes with key, unsigned, as the converter sorted them
+    private int compareId(int record, byte[] key) {
+        int at = heapStart + data.getInt(HEADER_BYTES + record * RECORD_BYTES);
+        int length = data.getInt(at);
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int c = (data.get(at + 4 + i) & 0xFF) - (key[i] & 0xFF);
+            if (c != 0) return c;
+        }
+        return length - key.length;
+    }
+
+    private String string(int offset) {
+        int at = heapStart + offset;
+        byte[] bytes = new byte[data.getInt(at)];
+        // a duplicate so concurrent readers do not share a position
+        ByteBuffer view = data.duplicate();
+        view.position(at + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts a text catalog (ID|TITLE|IMAGE_URL|TOTAL lines) to binaryFile.
+     * Blank and malformed lines are skipped, as when loading the text file.
+     * Returns the number of shows written.
+     */
+    public static int convert(File textFile, File binaryFile) throws IOException {
+        long sourceLength = textFile.length();
+        long sourceModified = textFile.lastModified();
+
+        ByteArrayOutputStream heapBytes = new ByteArrayOutputStream();
+        DataOutputStream heap = new DataOutputStream(heapBytes);
+        List<byte[]> ids = new ArrayList<>();
+        int[] records = new int[1024];
+        int count = 0;
+        try (RecordReader r = RecordReader.open(textFile)) {
+            while (r.next()) {
+                if (r.isBlank() || r.fieldCount() < 4) continue;
+                int total = r.intField(3, Integer.MIN_VALUE);
+                if (total == Integer.MIN_VALUE) continue;
+                if ((count + 1) * 4 > records.length) records = Arrays.copyOf(records, records.length * 2);
+                String id = r.string(0);
+                records[count * 4] = writeString(id, heap);
+                records[count * 4 + 1] = writeString(r.string(1), heap);
+                records[count * 4 + 2] = writeString(r.string(2), heap);
+                records[count * 4 + 3] = total;
+                ids.add(id.getBytes(StandardCharsets.UTF_8));
+                count++;
+            }
+        }
+        heap.flush();
+        if ((long) HEADER_BYTES + count * 20L + heapBytes.size() > Integer.MAX_VALUE) {
+            throw new IOException(textFile + " is too large for a binary catalog");
+        }
+
+        Integer[] index = new Integer[count];
+        for (int i = 0; i < count; i++) index[i] = i;
+        Arrays.sort(index, (a, b) -> {
+            int c = Arrays.compareUnsigned(ids.get(a), ids.get(b));
+            return c != 0 ? c : Integer.compare(a, b);
+        });
+
+        // written beside the target and renamed over it, so readers never see half a file
+        File temp = new File(binaryFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            out.writeInt(heapBytes.size());
+            out.writeLong(sourceLength);
+            out.writeLong(sourceModified);
+            for (int i = 0; i < count * 4; i++) out.writeInt(records[i]);
+            for (int i = 0; i < count; i++) out.writeInt(index[i]);
+            heapBytes.writeTo(out);
+        }
+        try {
+            Files.move(temp.toPath(), binaryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), binaryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+        return count;
+    }
+
+    // Appends s to the heap and returns its offset
+    private static int writeString(String s, DataOutputStream heap) throws IOException {
+        int offset = heap.size();
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        heap.writeInt(bytes.length);
+        heap.write(bytes);
+        return offset;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String[] files = args.length > 0 ? args : new String[] {"anime_database.txt", "manga_database.txt"};
+        for (String name : files) {
+            File text = new File(name);
+            if (!text.isFile()) {
+                System.out.println(name + ": not found, skipped");
+                continue;
+            }
+            File binary = binaryFileFor(text);
+            int count = convert(text, binary);
+            System.out.println(name + " -> " + binary.getName() + ": " + count + " shows");
+        }
+    }
+}
@@ -6,16 +6,23 @@ import java.awt.*;
  * Keeps shared layout and exposes components for subclasses to wire behavior.
  */
 public abstract class Card extends JPanel {
+    public static final int CARD_HEIGHT = 140;
+    public static final int POSTER_WIDTH = 105;
+
     protected JLabel poster;
     protected JLabel titleLabel;
     protected JLabel typeLabel;
     protected JLabel progressLabel;
+    protected JLabel ratingLabel;
     protected JProgressBar progressBar;
     protected JButton inc;
+    protected String status;
+    private String imageUrl;
 
     public Card(String title, String imageUrl, int progress, int total, int rating, String typeText) {
-        int cardHeight = 140;
-        int posterWidth = 105;
+        int cardHeight = CARD_HEIGHT;
+        int posterWidth = POSTER_WIDTH;
+        this.imageUrl = imageUrl;
 
         setLayout(new BorderLayout());
         setOpaque(false);
@@ -66,7 +73,7 @@ public abstract class Card extends JPanel {
         JLabel star = new JLabel("\u2605");
         star.setForeground(new Color(255, 176, 0));
         star.setFont(new Font("SansSerif", Font.PLAIN, 14));
-        JLabel ratingLabel = new JLabel((rating >= 0) ? String.valueOf(rating) : "—");
+        ratingLabel = new JLabel(formatRating(rating));
         ratingLabel.setForeground(Theme.SECONDARY);
         ratingLabel.setFont(new Font("Arial", Font.PLAIN, 12));
         ratingBox.add(star);
@@ -118,6 +125,47 @@ public abstract class Card extends JPanel {
         setAlignmentY(Component.TOP_ALIGNMENT);
     }
 
+    public String getStatus() { return status; }
+
+    // Outer height of a card, used by VirtualCardGrid to lay out rows without measuring
+    public static int preferredHeight() {
+        return CARD_HEIGHT + 10;
+    }
+
+    /**
+     * Points the card at a show and list entry. Called for a fresh copy of the
+     * entry after +1/edit/status changes, and by VirtualCardGrid when a card is
+     * recycled for a different show.
+     */
+    public abstract void bind(Show show, UserShowEntry entry);
+
+    // Shared part of bind(): refreshes every label, and the cover only if it changed
+    protected void bindFields(String title, String imageUrl, int progress, int total, int rating, String status) {
+        titleLabel.setText(title);
+        if (imageUrl == null ? this.imageUrl != null : !imageUrl.equals(this.imageUrl)) {
+            this.imageUrl = imageUrl;
+            ImageLoader.loadImageAsync(imageUrl, POSTER_WIDTH - 4, CARD_HEIGHT, poster);
+        }
+        setProgress(progress, total);
+        setRating(rating);
+        this.status = status;
+    }
+
+    // Updates the progress label and bar in place
+    protected void setProgress(int progress, int total) {
+        progressLabel.setText(progress + " / " + total);
+        progressBar.setMaximum(Math.max(1, total));
+        progressBar.setValue(Math.max(0, Math.min(progress, total)));
+    }
+
+    protected void setRating(int rating) {
+        ratingLabel.setText(formatRating(rating));
+    }
+
+    private static String formatRating(int rating) {
+        return (rating >= 0) ? String.valueOf(rating) : "\u2014";
+    }
+
     // Small helper rounded panel moved into Card so cards are self-contained
     static class RoundedPanel extends JPanel {
         private Color bgColor;
@@ -0,0 +1,154 @@
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * In-memory view of a catalog file (anime_database.txt / manga_database.txt).
+ * The file is parsed once into an ID -> show map plus an ordered list, and is
+ * only parsed again when its modification time or size changes, or after
+ * invalidate() is called. The file is looked at (two stat calls) at most once
+ * per -Dtracker.catalog.checkIntervalMs (default 1000), so a dashboard doing
+ * a findById per entry does not stat it each time; changes made by this app
+ * call invalidate() and are seen at once. A title search index is built
+ * lazily on top of it.
+ *
+ * If a binary copy exists (anime_database.bin, see BinaryCatalog) it is
+ * mapped instead of parsing the text: shows are then created on demand and
+ * lookups by ID are binary searches in the file. A copy that is out of date
+ * with the text file, or damaged, is converted again first; if that fails the
+ * text file is parsed.
+ */
+public class CatalogIndex<T extends Show> {
+    private static final long CHECK_INTERVAL_NANOS =
+        TimeUnit.MILLISECONDS.toNanos(Long.getLong("tracker.catalog.checkIntervalMs", 1000));
+
+    private final File file;
+    private final File binaryFile;
+    private final Function<RecordReader, T> parser;
+    private final BinaryCatalog.Factory<T> factory;
+
+    // Set while the catalog is served from the binary file (byId is then unused)
+    private BinaryCatalog<T> binary;
+    private Map<String, T> byId = new HashMap<>();
+    private List<T> ordered = Collections.emptyList();
+    // Built on the first search after each (re)load
+    private TitleSearchIndex<T> searchIndex;
+    private long loadedModified = -1;
+    private long loadedLength = -1;
+    private boolean stale = true;
+    // System.nanoTime() of the last look at the file
+    private long lastChecked;
+
+    // parser turns the reader's current line into a show, or null to skip the line;
+    // factory creates a show from the fields of a binary record
+    public CatalogIndex(String path, Function<RecordReader, T> parser, BinaryCatalog.Factory<T> factory) {
+        this.file = new File(path);
+        this.binaryFile = BinaryCatalog.binaryFileFor(file);
+        this.parser = parser;
+        this.factory = factory;
+    }
+
+    // Returns every show in file order. The list is read-only.
+    public synchronized List<T> getAll() {
+        refreshIfChanged();
+        return ordered;
+    }
+
+    // Number of shows in the catalog, without building a list of them.
+    public synchronized int size() {
+        refreshIfChanged();
+        return binary != null ? binary.size() : ordered.size();
+    }
+
+    // Returns the show with the given ID, or null if it is not in the catalog.
+    public synchronized T findById(String id) {
+        if (id == null) return null;
+        refreshIfChanged();
+        return binary != null ? binary.findById(id) : byId.get(id);
+    }
+
+    // Returns up to limit shows whose titles match query, best match first (see TitleSearchIndex).
+    public synchronized List<T> search(String query, int limit) {
+        refreshIfChanged();
+        if (searchIndex == null) searchIndex = new TitleSearchIndex<>(ordered);
+        return searchIndex.search(query, limit);
+    }
+
+    // Forces the next lookup to re-read the file (used after appending to it).
+    public synchronized void invalidate() {
+        stale = true;
+    }
+
+    private void refreshIfChanged() {
+        long now = System.nanoTime();
+        if (!stale && now - lastChecked < CHECK_INTERVAL_NANOS) return;
+        lastChecked = now;
+        long modified = file.lastModified();
+        long length = file.length();
+        if (!stale && modified == loadedModified && length == loadedLength) return;
+
+        TrackerEvents.CatalogLoad event = new TrackerEvents.CatalogLoad();
+        event.begin();
+        BinaryCatalog<T> mapped = BinaryCatalog.openIfCurrent(binaryFile, file, factory);
+        if (mapped == null && binaryFile.isFile()) mapped = reconvert();
+        if (mapped != null) {
+            // mapped, not read: pages are only faulted in as shows are looked up
+            Metrics.fileBytes(binaryFile, "bytesMapped", Metrics.ENABLED ? binaryFile.length() : 0);
+            binary = mapped;
+            byId = Collections.emptyMap();
+            ordered = mapped.asList();
+            searchIndex = null;
+            loadedModified = modified;
+            loadedLength = length;
+            stale = false;
+            commit(event, binaryFile, "binary", mapped.size(), binaryFile.length());
+            return;
+        }
+
+        List<T> newOrdered;
+        try {
+            // large files are parsed in chunks on several threads
+            newOrdered = ParallelCatalogLoader.load(file, parser, ParallelCatalogLoader.defaultPool());
+            Metrics.fileBytes(file, "bytesRead", length);
+        } catch (IOException e) {
+            // File doesn't exist yet
+            newOrdered = new ArrayList<>();
+        }
+        Map<String, T> newById = new HashMap<>(newOrdered.size() * 2);
+        for (T show : newOrdered) {
+            // keep the first occurrence, as the old linear scans did
+            newById.putIfAbsent(show.getId(), show);
+        }
+
+        binary = null;
+        byId = newById;
+        ordered = Collections.unmodifiableList(newOrdered);
+        searchIndex = null;
+        loadedModified = modified;
+        loadedLength = length;
+        stale = false;
+        commit(event, file, "text", newOrdered.size(), length);
+    }
+
+    // Rebuilds a stale or damaged binary copy; null (parse the text) if that fails
+    private BinaryCatalog<T> reconvert() {
+        try {
+            BinaryCatalog.convert(file, binaryFile);
+        } catch (IOException e) {
+            System.err.println("Could not rebuild " + binaryFile + ": " + e.getMessage());
+            return null;
+        }
+        return BinaryCatalog.openIfCurrent(binaryFile, file, factory);
+    }
+
+    private static void commit(TrackerEvents.CatalogLoad event, File source, String format, int records, long bytes) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.file = source.getName();
+        event.format = format;
+        event.records = records;
+        event.bytes = bytes;
+        event.commit();
+    }
+}
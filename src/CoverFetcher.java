@@ -0,0 +1,152 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Downloads cover images over one shared HttpClient, so every cover from the
+ * same CDN host reuses pooled (and, where the server offers it, HTTP/2
+ * multiplexed) connections instead of paying a TCP/TLS handshake per image.
+ *
+ * Requests time out, transient failures (I/O errors, 5xx, 429) are retried a
+ * few times with exponential backoff, and a cover already on disk is
+ * revalidated with If-None-Match / If-Modified-Since so an unchanged image
+ * costs a 304 and no body.
+ *
+ * Settings come from system properties:
+ * tracker.http.connectTimeoutMs (default 5000),
+ * tracker.http.readTimeoutMs (default 10000),
+ * tracker.http.retries (default 2).
+ */
+public class CoverFetcher {
+    private static final long BACKOFF_MS = 200;
+
+    // With -Dtracker.metrics=true (see Metrics); a fetch's time includes its retries
+    private static final Metrics.Timer FETCH = Metrics.timer("CoverFetcher.fetch");
+    private static final Metrics.Counter FAILURES = Metrics.counter("CoverFetcher.failures");
+    private static final Metrics.Counter RETRIES = Metrics.counter("CoverFetcher.retries");
+    private static final Metrics.Counter NOT_MODIFIED = Metrics.counter("CoverFetcher.notModified");
+    private static final Metrics.Counter BYTES_DOWNLOADED = Metrics.counter("CoverFetcher.bytesDownloaded");
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final int retries;
+
+    // What a fetch produced: new bytes, or confirmation that the cached ones are current
+    public static class Result {
+        public final byte[] data;
+        public final boolean notModified;
+        public final String etag;
+        public final String lastModified;
+
+        Result(byte[] data, boolean notModified, String etag, String lastModified) {
+            this.data = data;
+            this.notModified = notModified;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    public CoverFetcher(Duration connectTimeout, Duration requestTimeout, int retries) {
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        this.requestTimeout = requestTimeout;
+        this.retries = retries;
+    }
+
+    public static CoverFetcher fromSystemProperties() {
+        return new CoverFetcher(
+            Duration.ofMillis(Long.getLong("tracker.http.connectTimeoutMs", 5000)),
+            Duration.ofMillis(Long.getLong("tracker.http.readTimeoutMs", 10000)),
+            Integer.getInteger("tracker.http.retries", 2));
+    }
+
+    /**
+     * Fetches url. If cached is given, the request is conditional on its
+     * validators and a 304 comes back as a Result with notModified set and no
+     * data. Throws IOException once the retries are used up.
+     */
+    public Result fetch(String url, ImageCache.DiskEntry cached) throws IOException {
+        long start = Metrics.start();
+        try {
+            Result result = fetchWithRetries(url, cached);
+            if (result.notModified) NOT_MODIFIED.increment();
+            else BYTES_DOWNLOADED.add(result.data.length);
+            return result;
+        } catch (IOException e) {
+            FAILURES.increment();
+            throw e;
+        } finally {
+            FETCH.stop(start);
+        }
+    }
+
+    private Result fetchWithRetries(String url, ImageCache.DiskEntry cached) throws IOException {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Bad cover URL: " + url, e);
+        }
+        String scheme = uri.getScheme();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+            // file: and jar: covers are read directly
+            return new Result(readUrl(url), false, null, null);
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(requestTimeout).GET();
+        // HTTP/2 is negotiated over TLS; a cleartext h2c upgrade attempt just costs an extra round trip
+        if ("http".equalsIgnoreCase(scheme)) builder.version(HttpClient.Version.HTTP_1_1);
+        if (cached != null && cached.etag != null) builder.header("If-None-Match", cached.etag);
+        if (cached != null && cached.lastModified != null) builder.header("If-Modified-Since", cached.lastModified);
+        HttpRequest request = builder.build();
+
+        IOException last = null;
+        for (int attempt = 0; attempt <= retries; attempt++) {
+            if (attempt > 0) {
+                RETRIES.increment();
+                backoff(attempt);
+            }
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                int code = response.statusCode();
+                String etag = response.headers().firstValue("ETag").orElse(null);
+                String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+                if (code == 304 && cached != null) return new Result(null, true, etag, lastModified);
+                if (code >= 200 && code < 300) return new Result(response.body(), false, etag, lastModified);
+                last = new IOException("HTTP " + code + " for " + url);
+                // other 4xx answers will not change on a retry
+                if (code != 429 && code < 500) break;
+            } catch (IOException e) {
+                // includes HttpTimeoutException
+                last = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted fetching " + url, e);
+            }
+        }
+        throw last;
+    }
+
+    private static void backoff(int attempt) throws IOException {
+        try {
+            Thread.sleep(BACKOFF_MS << (attempt - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    private static byte[] readUrl(String url) throws IOException {
+        try (InputStream in = new URL(url).openStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
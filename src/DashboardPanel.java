@@ -0,0 +1,180 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+/**
+ * The logged-in user's dashboard: eight status tabs of cards plus the
+ * add/logout buttons. One instance is created per app and reused; showSnapshot()
+ * fills the tab models for a new login, and refreshEntry() applies a single
+ * list change by updating or moving just that entry. Both take data already
+ * loaded off the EDT by AsyncTrackerAPI. Each tab is a
+ * VirtualCardGrid, so cards only exist for the rows on screen.
+ */
+public class DashboardPanel extends JPanel {
+    private final AnimeTrackerApp app;
+    private final JLabel welcomeLabel;
+    // Tabs keyed by TYPE|STATUS, items keyed by TYPE|SHOW_ID
+    private final Map<String, StatusTab> tabs = new HashMap<>();
+    private final Map<String, DashboardSnapshot.Item<?>> items = new HashMap<>();
+    // Card components created so far (for the DashboardShow flight recorder event)
+    private int cardsBuilt;
+
+    public DashboardPanel(AnimeTrackerApp app) {
+        super(new BorderLayout());
+        this.app = app;
+        setBackground(Theme.BACKGROUND);
+
+        welcomeLabel = new JLabel("", SwingConstants.CENTER);
+        welcomeLabel.setFont(new Font("Arial", Font.BOLD, 24));
+        welcomeLabel.setForeground(Theme.PRIMARY);
+        welcomeLabel.setBorder(BorderFactory.createEmptyBorder(20, 0, 20, 0));
+        add(welcomeLabel, BorderLayout.NORTH);
+
+        JTabbedPane tabbedPane = new JTabbedPane();
+        tabbedPane.setFont(new Font("Arial", Font.PLAIN, 14));
+
+        // Anime tabs
+        addTab(tabbedPane, "Watching", "ANIME", "Watching");
+        addTab(tabbedPane, "Completed Anime", "ANIME", "Completed");
+        addTab(tabbedPane, "Plan to Watch", "ANIME", "Plan to Watch");
+        addTab(tabbedPane, "Dropped Anime", "ANIME", "Dropped");
+
+        // Manga tabs
+        addTab(tabbedPane, "Reading", "MANGA", "Reading");
+        addTab(tabbedPane, "Completed Manga", "MANGA", "Completed");
+        addTab(tabbedPane, "Plan to Read", "MANGA", "Plan to Read");
+        addTab(tabbedPane, "Dropped Manga", "MANGA", "Dropped");
+
+        add(tabbedPane, BorderLayout.CENTER);
+
+        JPanel bottomPanel = new JPanel(new FlowLayout());
+        bottomPanel.setBackground(Theme.BACKGROUND);
+
+        JButton addAnimeBtn = UIHelpers.createStyledButton("Add Anime");
+        addAnimeBtn.addActionListener(e -> AddToListActions.addAnimeToList(app));
+
+        JButton addMangaBtn = UIHelpers.createStyledButton("Add Manga");
+        addMangaBtn.addActionListener(e -> AddToListActions.addMangaToList(app));
+
+        JButton logoutBtn = UIHelpers.createStyledButton("Logout");
+        logoutBtn.addActionListener(e -> app.logout());
+
+        bottomPanel.add(addAnimeBtn);
+        bottomPanel.add(addMangaBtn);
+        bottomPanel.add(logoutBtn);
+
+        add(bottomPanel, BorderLayout.SOUTH);
+    }
+
+    private void addTab(JTabbedPane tabbedPane, String title, String type, String status) {
+        StatusTab tab = new StatusTab(item -> {
+            cardsBuilt++;
+            return "ANIME".equals(type)
+                ? new AnimeCard((Anime) item.getShow(), item.getEntry(), status, app)
+                : new MangaCard((Manga) item.getShow(), item.getEntry(), status, app);
+        });
+        tabs.put(type + "|" + status, tab);
+        tabbedPane.addTab(title, tab);
+    }
+
+    // Clears the tabs and shows a loading message while the user's list is read.
+    public void showLoading(String username) {
+        welcomeLabel.setText("Loading " + username + "'s list...");
+        items.clear();
+        for (StatusTab tab : tabs.values()) tab.grid.setItems(Collections.emptyList());
+    }
+
+    // Fills every tab from a freshly built snapshot (login, or after a user switch).
+    public void showSnapshot(DashboardSnapshot snapshot) {
+        TrackerEvents.DashboardShow event = new TrackerEvents.DashboardShow();
+        event.begin();
+        int cardsBefore = cardsBuilt;
+        welcomeLabel.setText("Welcome, " + app.currentUser + "!");
+        items.clear();
+
+        // Every tab renders from the one snapshot
+        for (String status : DashboardSnapshot.ANIME_STATUSES) {
+            List<DashboardSnapshot.Item<Anime>> tabItems = snapshot.getAnime(status);
+            for (DashboardSnapshot.Item<Anime> item : tabItems) {
+                items.put(UserList.key("ANIME", item.getShow().getId()), item);
+            }
+            tabs.get("ANIME|" + status).grid.setItems(tabItems);
+        }
+        for (String status : DashboardSnapshot.MANGA_STATUSES) {
+            List<DashboardSnapshot.Item<Manga>> tabItems = snapshot.getManga(status);
+            for (DashboardSnapshot.Item<Manga> item : tabItems) {
+                items.put(UserList.key("MANGA", item.getShow().getId()), item);
+            }
+            tabs.get("MANGA|" + status).grid.setItems(tabItems);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.user = app.currentUser;
+            event.items = items.size();
+            event.cardsBuilt = cardsBuilt - cardsBefore;
+            event.commit();
+        }
+    }
+
+    /**
+     * Applies a change to one list entry (added, edited, +1, removed): the
+     * entry's card is rebound in place, or the entry moves to its new status
+     * tab, is added, or is dropped. Nothing else on the dashboard is rebuilt.
+     * loaded is the entry and its show as read after the change (see
+     * AsyncTrackerAPI.loadItem); a null entry means it was removed.
+     */
+    public void refreshEntry(String type, String showId, DashboardSnapshot.Item<Show> loaded) {
+        String key = UserList.key(type, showId);
+        DashboardSnapshot.Item<?> item = items.get(key);
+        UserShowEntry entry = loaded.getEntry();
+
+        if (entry == null) {
+            if (item != null) {
+                items.remove(key);
+                StatusTab oldTab = tabFor(type, item.getEntry().getStatus());
+                if (oldTab != null) oldTab.grid.removeItem(item);
+            }
+            return;
+        }
+
+        StatusTab newTab = tabFor(type, entry.getStatus());
+        if (item == null) {
+            // shows missing from the catalog are skipped, as in the snapshot
+            if (loaded.getShow() == null || newTab == null) return;
+            item = loaded;
+            items.put(key, item);
+            newTab.grid.addItem(item);
+            return;
+        }
+
+        StatusTab oldTab = tabFor(type, item.getEntry().getStatus());
+        item.setEntry(entry);
+        if (oldTab == newTab) {
+            if (newTab != null) newTab.grid.itemChanged(item);
+        } else {
+            if (oldTab != null) oldTab.grid.removeItem(item);
+            if (newTab != null) newTab.grid.addItem(item);
+        }
+    }
+
+    private StatusTab tabFor(String type, String status) {
+        return tabs.get(type + "|" + status);
+    }
+
+    // One status tab: a virtualized two-column card grid inside a scroll pane
+    static class StatusTab extends JPanel {
+        final VirtualCardGrid grid;
+
+        StatusTab(java.util.function.Function<DashboardSnapshot.Item<?>, Card> cardFactory) {
+            super(new BorderLayout());
+            setBackground(Color.WHITE);
+
+            grid = new VirtualCardGrid(cardFactory);
+            JScrollPane scrollPane = new JScrollPane(grid);
+            scrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+            scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+            add(scrollPane, BorderLayout.CENTER);
+        }
+    }
+}
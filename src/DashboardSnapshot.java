@@ -0,0 +1,87 @@
+import java.util.*;
+
+/**
+ * Everything the user dashboard shows, built once per refresh: each list entry
+ * is joined with its catalog show and grouped by type and status, so the eight
+ * tabs render from one read of the user's list instead of loading it per tab.
+ */
+public class DashboardSnapshot {
+    // Tab labels, in tab order (see ShowType.getStatuses)
+    public static final String[] ANIME_STATUSES = labels(ShowType.ANIME);
+    public static final String[] MANGA_STATUSES = labels(ShowType.MANGA);
+
+    // A list entry together with the catalog show it refers to
+    public static class Item<T extends Show> {
+        private final T show;
+        private UserShowEntry entry;
+
+        public Item(T show, UserShowEntry entry) {
+            this.show = show;
+            this.entry = entry;
+        }
+
+        public T getShow() { return show; }
+        public UserShowEntry getEntry() { return entry; }
+        public void setEntry(UserShowEntry entry) { this.entry = entry; }
+    }
+
+    private final Map<String, List<Item<Anime>>> animeByStatus = new HashMap<>();
+    private final Map<String, List<Item<Manga>>> mangaByStatus = new HashMap<>();
+
+    private DashboardSnapshot() {
+        for (String s : ANIME_STATUSES) animeByStatus.put(s, new ArrayList<>());
+        for (String s : MANGA_STATUSES) mangaByStatus.put(s, new ArrayList<>());
+    }
+
+    private static String[] labels(ShowType type) {
+        return type.getStatuses().stream().map(EntryStatus::getLabel).toArray(String[]::new);
+    }
+
+    public static DashboardSnapshot build(TrackerAPI api, String username) {
+        TrackerEvents.DashboardBuild event = new TrackerEvents.DashboardBuild();
+        event.begin();
+        DashboardSnapshot snapshot = new DashboardSnapshot();
+        int items = 0, skipped = 0;
+        // Entries whose show is missing from the catalog are skipped, as before
+        for (List<UserShowEntry> entries : api.getUserAnimeByStatus(username).values()) {
+            for (UserShowEntry entry : entries) {
+                Anime anime = api.findAnimeById(entry.getShowId());
+                if (anime != null) {
+                    snapshot.animeByStatus.get(entry.getStatus()).add(new Item<>(anime, entry));
+                    items++;
+                } else {
+                    skipped++;
+                }
+            }
+        }
+        for (List<UserShowEntry> entries : api.getUserMangaByStatus(username).values()) {
+            for (UserShowEntry entry : entries) {
+                Manga manga = api.findMangaById(entry.getShowId());
+                if (manga != null) {
+                    snapshot.mangaByStatus.get(entry.getStatus()).add(new Item<>(manga, entry));
+                    items++;
+                } else {
+                    skipped++;
+                }
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.user = username;
+            event.items = items;
+            event.skipped = skipped;
+            event.commit();
+        }
+        return snapshot;
+    }
+
+    public List<Item<Anime>> getAnime(String status) {
+        List<Item<Anime>> items = animeByStatus.get(status);
+        return items == null ? Collections.emptyList() : items;
+    }
+
+    public List<Item<Manga>> getManga(String status) {
+        List<Item<Manga>> items = mangaByStatus.get(status);
+        return items == null ? Collections.emptyList() : items;
+    }
+}
@@ -0,0 +1,244 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * Writes a synthetic data directory (anime_database.txt, manga_database.txt
+ * and users/) for load tests and benchmarks:
+ *
+ *   java DatasetGenerator <dir> [--anime N] [--manga N] [--users N] [--seed N] [--legacy FRACTION]
+ *
+ * The numbers are shaped like a real tracker rather than uniform:
+ * - titles are built from common title words, some with accents,
+ *   punctuation, a "The " prefix or a '|' (written escaped);
+ * - episode counts cluster on 12/13/24/26 with a long tail, chapter counts
+ *   are spread wide;
+ * - list sizes are log-normal (most users list a few dozen shows, a few list
+ *   thousands);
+ * - statuses are mostly Completed and Plan to Watch/Read, progress matches
+ *   the status, and about a third of the entries are unrated.
+ *
+ * It also writes the awkward cases the app has to cope with: a fraction of
+ * entries (--legacy, default 0.02) store the title instead of the show ID,
+ * some without "The " or in another case, a few match no show at all; some
+ * users have a malformed line or a duplicated entry. No user is marked clean,
+ * so each one goes through UserIdRepair at its first login.
+ *
+ * The same seed always produces the same files.
+ */
+public class DatasetGenerator {
+    private static final String[] WORDS = {
+        "Shingeki", "no", "Kyojin", "Sword", "Art", "Online", "Fullmetal", "Alchemist", "Steins", "Gate",
+        "Hunter", "Naruto", "Bleach", "One", "Piece", "Death", "Note", "Code", "Geass", "Cowboy", "Bebop",
+        "Spirited", "Away", "Neon", "Genesis", "Evangelion", "Monster", "Vinland", "Saga", "Haikyuu", "Mob",
+        "Psycho", "Kimi", "Koe", "Shirobako", "Frieren", "Jujutsu", "Kaisen", "Chainsaw", "Man", "Blue",
+        "Lock", "Dr", "Stone", "Spy", "Family", "Oshi", "Ko", "Made", "Abyss", "Mushishi", "Nana",
+        "Pok\u00E9mon", "K\u014Dkaku", "Kid\u014Dtai", "Sh\u014Djo", "Caf\u00E9", "Re:Zero", "Love", "Live!", "Dragon", "Ball",
+        "Academia", "Hero", "Slayer", "Demon", "Tokyo", "Ghoul", "Night", "Summer", "Winter", "Detective"
+    };
+    private static final String[] SUFFIXES = {
+        "", "", "", "", " 2nd Season", " Season 3", " Movie", " OVA", ": Brotherhood", ": Final Season",
+        " - The Animation", " (TV)", " Zero", " Kai", " Part 2"
+    };
+    private static final String[] ANIME_STATUSES = {"Completed", "Plan to Watch", "Watching", "Dropped"};
+    private static final String[] MANGA_STATUSES = {"Completed", "Plan to Read", "Reading", "Dropped"};
+    private static final double[] STATUS_WEIGHTS = {0.45, 0.30, 0.15, 0.10};
+
+    private final Random random;
+    private final double legacyFraction;
+
+    public DatasetGenerator(long seed, double legacyFraction) {
+        this.random = new Random(seed);
+        this.legacyFraction = legacyFraction;
+    }
+
+    // What was generated, for the load driver and for reporting
+    public static class Summary {
+        public int anime, manga, users, entries, legacyEntries, malformedLines;
+
+        @Override
+        public String toString() {
+            return anime + " anime, " + manga + " manga, " + users + " users with " + entries + " entries ("
+                + legacyEntries + " stored by title, " + malformedLines + " malformed lines)";
+        }
+    }
+
+    /**
+     * Writes the catalogs and users into dir (created if needed; existing
+     * catalog and user files there are replaced).
+     */
+    public Summary generate(File dir, int animeCount, int mangaCount, int userCount) throws IOException {
+        File usersDir = new File(dir, "users");
+        if (!usersDir.isDirectory() && !usersDir.mkdirs()) throw new IOException("Cannot create " + usersDir);
+        Summary summary = new Summary();
+
+        List<Show> anime = new ArrayList<>(animeCount);
+        for (int i = 0; i < animeCount; i++) anime.add(new Anime(uuid(), title(), coverUrl(i, "a"), episodeCount()));
+        List<Show> manga = new ArrayList<>(mangaCount);
+        for (int i = 0; i < mangaCount; i++) manga.add(new Manga(uuid(), title(), coverUrl(i, "m"), chapterCount()));
+        writeCatalog(new File(dir, "anime_database.txt"), anime);
+        writeCatalog(new File(dir, "manga_database.txt"), manga);
+        summary.anime = animeCount;
+        summary.manga = mangaCount;
+
+        for (int u = 0; u < userCount; u++) {
+            String username = String.format("user%05d", u);
+            List<String> lines = new ArrayList<>();
+            addEntries(lines, "ANIME", anime, ANIME_STATUSES, listSize(anime.size()), summary);
+            addEntries(lines, "MANGA", manga, MANGA_STATUSES, listSize(manga.size()) / 3, summary);
+            if (!lines.isEmpty() && random.nextDouble() < 0.02) {
+                // an entry listed twice (the first line wins when loading)
+                lines.add(lines.get(random.nextInt(lines.size())));
+            }
+            if (random.nextDouble() < 0.01) {
+                lines.add(random.nextBoolean() ? "ANIME|truncated-line" : "MANGA|" + uuid() + "|Reading|abc|def|extra");
+                summary.malformedLines++;
+            }
+            Collections.shuffle(lines, random);
+            writeLines(new File(usersDir, username + ".txt"), lines);
+            new File(usersDir, username + ".clean").delete();
+            summary.users++;
+        }
+        return summary;
+    }
+
+    private void addEntries(List<String> lines, String type, List<Show> catalog, String[] statuses, int count,
+                            Summary summary) {
+        if (catalog.isEmpty()) return;
+        // popular shows are listed far more often than obscure ones
+        Set<Integer> picked = new LinkedHashSet<>();
+        int wanted = Math.min(count, catalog.size());
+        for (int tries = 0; picked.size() < wanted && tries < wanted * 20; tries++) {
+            double skew = Math.pow(random.nextDouble(), 2.5);
+            picked.add((int) (skew * catalog.size()));
+        }
+        // a list nearly as long as the catalog: fill up with whatever is left
+        for (int i = 0; picked.size() < wanted; i++) picked.add(i);
+        for (int index : picked) {
+            Show show = catalog.get(index);
+            int total = show instanceof Anime ? ((Anime) show).getTotalEpisodes() : ((Manga) show).getTotalChapters();
+            int statusIndex = weighted(STATUS_WEIGHTS);
+            String status = statuses[statusIndex];
+            int progress;
+            switch (statusIndex) {
+                case 0: progress = total; break;                               // completed
+                case 1: progress = 0; break;                                   // plan to
+                default: progress = total <= 1 ? 0 : random.nextInt(total);   // watching/reading, dropped
+            }
+            int rating = random.nextDouble() < 0.35 ? -1 : Math.min(10, Math.max(0, (int) Math.round(7 + random.nextGaussian() * 1.6)));
+            String showId = show.getId();
+            if (random.nextDouble() < legacyFraction) {
+                showId = legacyId(show.getTitle());
+                summary.legacyEntries++;
+            }
+            lines.add(type + "|" + RecordReader.escape(showId) + "|" + status + "|" + progress + "|" + rating);
+            summary.entries++;
+        }
+    }
+
+    // A title where a show ID should be, as older files had it
+    private String legacyId(String title) {
+        double r = random.nextDouble();
+        if (r < 0.6) return title;
+        if (r < 0.75 && title.startsWith("The ")) return title.substring(4);
+        if (r < 0.9) return title.toLowerCase();
+        return "Unknown Show " + random.nextInt(1000); // matches nothing
+    }
+
+    private String title() {
+        StringBuilder sb = new StringBuilder();
+        if (random.nextDouble() < 0.08) sb.append("The ");
+        int words = 1 + random.nextInt(4);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) sb.append(random.nextDouble() < 0.1 ? ": " : " ");
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        sb.append(SUFFIXES[random.nextInt(SUFFIXES.length)]);
+        if (random.nextDouble() < 0.002) sb.append(" | Side Story");
+        // make titles mostly unique, as in a real catalog
+        if (random.nextDouble() < 0.7) sb.append(' ').append(1 + random.nextInt(999));
+        return sb.toString();
+    }
+
+    private int episodeCount() {
+        double r = random.nextDouble();
+        if (r < 0.35) return 12;
+        if (r < 0.45) return 13;
+        if (r < 0.65) return 24;
+        if (r < 0.72) return 26;
+        if (r < 0.80) return 1; // movies
+        return 1 + (int) Math.exp(random.nextDouble() * Math.log(1100)); // long runners
+    }
+
+    private int chapterCount() {
+        return 1 + (int) Math.exp(random.nextDouble() * Math.log(1200));
+    }
+
+    // Log-normal, median 60, capped at the catalog size
+    private int listSize(int catalogSize) {
+        int size = (int) Math.exp(Math.log(60) + random.nextGaussian() * 1.1);
+        return Math.min(size, catalogSize);
+    }
+
+    private int weighted(double[] weights) {
+        double r = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            r -= weights[i];
+            if (r < 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    private String uuid() {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    private String coverUrl(int i, String kind) {
+        return "https://covers.example/" + kind + "/" + i + ".jpg";
+    }
+
+    private static void writeCatalog(File file, List<Show> shows) throws IOException {
+        List<String> lines = new ArrayList<>(shows.size());
+        for (Show show : shows) lines.add(show.toFileString());
+        writeLines(file, lines);
+        // a binary copy of an old catalog would not match any more
+        BinaryCatalog.binaryFileFor(file).delete();
+    }
+
+    private static void writeLines(File file, List<String> lines) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            System.out.println("usage: java DatasetGenerator <dir> [--anime N] [--manga N] [--users N] [--seed N] [--legacy FRACTION]");
+            return;
+        }
+        Map<String, String> options = parseOptions(args, 1);
+        int anime = Integer.parseInt(options.getOrDefault("anime", "10000"));
+        int manga = Integer.parseInt(options.getOrDefault("manga", String.valueOf(anime / 4)));
+        int users = Integer.parseInt(options.getOrDefault("users", "100"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        double legacy = Double.parseDouble(options.getOrDefault("legacy", "0.02"));
+
+        long start = System.nanoTime();
+        Summary summary = new DatasetGenerator(seed, legacy).generate(new File(args[0]), anime, manga, users);
+        System.out.printf("%s: %s in %d ms%n", args[0], summary, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // "--name value" pairs from args[from..]
+    static Map<String, String> parseOptions(String[] args, int from) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = from; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
@@ -1,15 +1,17 @@
 import javax.swing.*;
-import java.io.IOException;
 
 public class EditDialogs {
     public static void editAnime(AnimeTrackerApp app, String animeId, String currentStatus) {
-        Anime anime = null;
-        for (Anime a : app.api.getAllAnime()) {
-            if (a.getId().equals(animeId)) { anime = a; break; }
-        }
-        if (anime == null) return;
-        UserShowEntry entry = app.api.getUserShowEntry(app.currentUser, animeId, "ANIME");
-        if (entry == null) return;
+        // read the entry off the EDT, then open the dialog
+        SwingAsync.run(app, app.async.loadItem(app.currentUser, "ANIME", animeId), item -> {
+            if (item.getShow() != null && item.getEntry() != null) {
+                showAnimeDialog(app, (Anime) item.getShow(), item.getEntry(), currentStatus);
+            }
+        });
+    }
+
+    private static void showAnimeDialog(AnimeTrackerApp app, Anime anime, UserShowEntry entry, String currentStatus) {
+        String animeId = anime.getId();
 
         JPanel editPanel = new JPanel(new java.awt.GridLayout(4, 2, 10, 10));
         JLabel titleLabel = new JLabel("Editing: " + anime.getTitle());
@@ -44,46 +46,48 @@ public class EditDialogs {
             JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
 
         if (result == JOptionPane.OK_OPTION) {
-            try {
-                int newProgress = (Integer) episodeSpinner.getValue();
-                String newStatus = (String) statusCombo.getSelectedItem();
-                int newRating = noRating.isSelected() ? -1 : (Integer) ratingSpinner.getValue();
-
-                if (newProgress > anime.getTotalEpisodes()) {
-                    JOptionPane.showMessageDialog(app, "Watched episodes cannot exceed total episodes.");
-                    return;
-                }
+            int newProgress = (Integer) episodeSpinner.getValue();
+            String newStatus = (String) statusCombo.getSelectedItem();
+            int newRating = noRating.isSelected() ? -1 : (Integer) ratingSpinner.getValue();
 
-                if ("Completed".equals(newStatus)) {
-                    newProgress = anime.getTotalEpisodes();
-                }
+            if (newProgress > anime.getTotalEpisodes()) {
+                JOptionPane.showMessageDialog(app, "Watched episodes cannot exceed total episodes.");
+                return;
+            }
 
-                if (newProgress == anime.getTotalEpisodes() && !"Completed".equals(newStatus)) {
-                    int choice = JOptionPane.showConfirmDialog(app,
-                        "You've watched all episodes. Mark as Completed?",
-                        "Complete Anime", JOptionPane.YES_NO_OPTION);
-                    if (choice == JOptionPane.YES_OPTION) {
-                        newStatus = "Completed";
-                    }
-                }
+            if ("Completed".equals(newStatus)) {
+                newProgress = anime.getTotalEpisodes();
+            }
 
-                app.api.updateUserEntry(app.currentUser, animeId, "ANIME", newStatus, newProgress, newRating);
-                JOptionPane.showMessageDialog(app, "Updated successfully!");
-                app.showUserDashboard();
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(app, "Error updating anime!");
+            if (newProgress == anime.getTotalEpisodes() && !"Completed".equals(newStatus)) {
+                int choice = JOptionPane.showConfirmDialog(app,
+                    "You've watched all episodes. Mark as Completed?",
+                    "Complete Anime", JOptionPane.YES_NO_OPTION);
+                if (choice == JOptionPane.YES_OPTION) {
+                    newStatus = "Completed";
+                }
             }
+
+            SwingAsync.run(app, app.async.updateUserEntry(app.currentUser, animeId, "ANIME", newStatus, newProgress, newRating),
+                done -> {
+                    JOptionPane.showMessageDialog(app, "Updated successfully!");
+                    app.refreshEntry("ANIME", animeId);
+                },
+                ex -> JOptionPane.showMessageDialog(app, "Error updating anime!"));
         }
     }
 
     public static void editManga(AnimeTrackerApp app, String mangaId, String currentStatus) {
-        Manga manga = null;
-        for (Manga m : app.api.getAllManga()) {
-            if (m.getId().equals(mangaId)) { manga = m; break; }
-        }
-        if (manga == null) return;
-        UserShowEntry entry = app.api.getUserShowEntry(app.currentUser, mangaId, "MANGA");
-        if (entry == null) return;
+        // read the entry off the EDT, then open the dialog
+        SwingAsync.run(app, app.async.loadItem(app.currentUser, "MANGA", mangaId), item -> {
+            if (item.getShow() != null && item.getEntry() != null) {
+                showMangaDialog(app, (Manga) item.getShow(), item.getEntry(), currentStatus);
+            }
+        });
+    }
+
+    private static void showMangaDialog(AnimeTrackerApp app, Manga manga, UserShowEntry entry, String currentStatus) {
+        String mangaId = manga.getId();
 
         JPanel editPanel = new JPanel(new java.awt.GridLayout(4, 2, 10, 10));
         JLabel titleLabel = new JLabel("Editing: " + manga.getTitle());
@@ -118,26 +122,25 @@ public class EditDialogs {
             JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
 
         if (result == JOptionPane.OK_OPTION) {
-            try {
-                int newProgress = (Integer) chapterSpinner.getValue();
-                String newStatus = (String) statusCombo.getSelectedItem();
-                int newRating = noRating.isSelected() ? -1 : (Integer) ratingSpinner.getValue();
-
-                if (newProgress == manga.getTotalChapters() && !newStatus.equals("Completed")) {
-                    int choice = JOptionPane.showConfirmDialog(app,
-                        "You've read all chapters. Mark as Completed?",
-                        "Complete Manga", JOptionPane.YES_NO_OPTION);
-                    if (choice == JOptionPane.YES_OPTION) {
-                        newStatus = "Completed";
-                    }
+            int newProgress = (Integer) chapterSpinner.getValue();
+            String newStatus = (String) statusCombo.getSelectedItem();
+            int newRating = noRating.isSelected() ? -1 : (Integer) ratingSpinner.getValue();
+
+            if (newProgress == manga.getTotalChapters() && !newStatus.equals("Completed")) {
+                int choice = JOptionPane.showConfirmDialog(app,
+                    "You've read all chapters. Mark as Completed?",
+                    "Complete Manga", JOptionPane.YES_NO_OPTION);
+                if (choice == JOptionPane.YES_OPTION) {
+                    newStatus = "Completed";
                 }
-
-                app.api.updateUserEntry(app.currentUser, mangaId, "MANGA", newStatus, newProgress, newRating);
-                JOptionPane.showMessageDialog(app, "Updated successfully!");
-                app.showUserDashboard();
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(app, "Error updating manga!");
             }
+
+            SwingAsync.run(app, app.async.updateUserEntry(app.currentUser, mangaId, "MANGA", newStatus, newProgress, newRating),
+                done -> {
+                    JOptionPane.showMessageDialog(app, "Updated successfully!");
+                    app.refreshEntry("MANGA", mangaId);
+                },
+                ex -> JOptionPane.showMessageDialog(app, "Error updating manga!"));
         }
     }
 }
@@ -0,0 +1,103 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Measures how long each event keeps the EDT busy. Enabled with
+ * -Dtracker.edtMonitor=true; events slower than -Dtracker.edtMonitor.thresholdMs
+ * (default 50) are logged to stderr, and a summary (events, total and worst
+ * blocked time) is printed on exit. When disabled nothing is installed.
+ *
+ * An event that opens a modal dialog (or any other nested event loop) is not
+ * charged for the loop: the events dispatched inside it are measured on their
+ * own, and the time the loop waits for the next event (the user looking at
+ * the dialog) counts as idle.
+ */
+public class EdtMonitor extends EventQueue {
+    private final long thresholdNanos;
+    private long events;
+    private long totalNanos;
+    private long maxNanos;
+
+    // Events being dispatched, and per level the time spent in nested events and
+    // in waiting for them; only touched on the EDT
+    private int depth;
+    private long[] nestedNanos = new long[4];
+
+    EdtMonitor(long thresholdMs) {
+        this.thresholdNanos = thresholdMs * 1_000_000;
+    }
+
+    public static void installIfEnabled() {
+        if (!Boolean.getBoolean("tracker.edtMonitor")) return;
+        EdtMonitor monitor = new EdtMonitor(Long.getLong("tracker.edtMonitor.thresholdMs", 50));
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(monitor);
+        Runtime.getRuntime().addShutdownHook(new Thread(monitor::printSummary, "edt-monitor-summary"));
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        long start = System.nanoTime();
+        if (depth == nestedNanos.length) nestedNanos = Arrays.copyOf(nestedNanos, depth * 2);
+        int level = depth++;
+        nestedNanos[level] = 0;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long end = System.nanoTime();
+            depth = level;
+            if (level > 0) nestedNanos[level - 1] += end - start;
+            long elapsed = end - start - nestedNanos[level];
+            synchronized (this) {
+                events++;
+                totalNanos += elapsed;
+                if (elapsed > maxNanos) maxNanos = elapsed;
+            }
+            if (elapsed >= thresholdNanos) {
+                System.err.printf("EDT blocked %d ms by %s%n", elapsed / 1_000_000, describe(event));
+            }
+        }
+    }
+
+    // Called by the loop that pumps this queue; inside a dispatch, that is a nested loop waiting
+    @Override
+    public AWTEvent getNextEvent() throws InterruptedException {
+        if (depth == 0 || !EventQueue.isDispatchThread()) return super.getNextEvent();
+        int level = depth - 1;
+        long start = System.nanoTime();
+        try {
+            return super.getNextEvent();
+        } finally {
+            nestedNanos[level] += System.nanoTime() - start;
+        }
+    }
+
+    private static String describe(AWTEvent event) {
+        Object source = event.getSource();
+        String sourceName = source == null ? "?" : source.getClass().getSimpleName();
+        if (source instanceof AbstractButton) sourceName += " \"" + ((AbstractButton) source).getText() + "\"";
+        return event.getClass().getSimpleName() + " (id " + event.getID() + ") from " + sourceName;
+    }
+
+    synchronized long events() {
+        return events;
+    }
+
+    synchronized long totalMillis() {
+        return totalNanos / 1_000_000;
+    }
+
+    synchronized long maxMillis() {
+        return maxNanos / 1_000_000;
+    }
+
+    // Removes the monitor from the queue stack again
+    void uninstall() {
+        pop();
+    }
+
+    private synchronized void printSummary() {
+        System.err.printf("EDT: %d events, %d ms busy in total, worst %d ms%n",
+            events, totalNanos / 1_000_000, maxNanos / 1_000_000);
+    }
+}
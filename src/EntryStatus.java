@@ -0,0 +1,41 @@
+/**
+ * The statuses a list entry can have. The labels are what the files store in
+ * the STATUS field and what the dashboard tabs and dialogs show.
+ */
+public enum EntryStatus {
+    WATCHING("Watching"),
+    READING("Reading"),
+    COMPLETED("Completed"),
+    PLAN_TO_WATCH("Plan to Watch"),
+    PLAN_TO_READ("Plan to Read"),
+    DROPPED("Dropped");
+
+    private static final EntryStatus[] VALUES = values();
+
+    private final String label;
+
+    EntryStatus(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    static EntryStatus byCode(int code) {
+        return VALUES[code];
+    }
+
+    // The status labelled s, or null if s is not a known status.
+    public static EntryStatus of(String s) {
+        for (EntryStatus status : VALUES) {
+            if (status.label.equals(s)) return status;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
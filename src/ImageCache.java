@@ -0,0 +1,250 @@
+import javax.swing.*;
+import java.io.*;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Two-tier cover cache used by ImageLoader.
+ *
+ * Memory tier: an LRU of decoded, already-scaled icons, bounded by the bytes
+ * their pixels take (width * height * 4), not by entry count.
+ * Disk tier: the downloaded image bytes, one file per URL named by the SHA-256
+ * of the URL, so covers survive restarts, plus a small .meta file with the
+ * ETag/Last-Modified the server sent (used for conditional re-fetches). It is
+ * bounded by total size; when it grows past the limit the least recently used
+ * covers are deleted.
+ *
+ * Limits come from system properties:
+ * tracker.imageCache.memoryBytes (default 64 MB),
+ * tracker.imageCache.diskBytes (default 256 MB),
+ * tracker.imageCache.dir (default cache/covers).
+ */
+public class ImageCache {
+    // Shared by every cache in the process, with -Dtracker.metrics=true (see Metrics)
+    private static final Metrics.Counter MEMORY_HITS = Metrics.counter("ImageCache.memoryHits");
+    private static final Metrics.Counter MEMORY_MISSES = Metrics.counter("ImageCache.memoryMisses");
+    private static final Metrics.Counter MEMORY_EVICTIONS = Metrics.counter("ImageCache.memoryEvictions");
+    private static final Metrics.Counter DISK_HITS = Metrics.counter("ImageCache.diskHits");
+    private static final Metrics.Counter DISK_MISSES = Metrics.counter("ImageCache.diskMisses");
+    private static final Metrics.Counter DISK_EVICTIONS = Metrics.counter("ImageCache.diskEvictions");
+
+    static {
+        Metrics.gauge("ImageCache.memoryHitRatio", () -> hitRatio(MEMORY_HITS, MEMORY_MISSES));
+        Metrics.gauge("ImageCache.diskHitRatio", () -> hitRatio(DISK_HITS, DISK_MISSES));
+    }
+
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+    private final File diskDir;
+
+    private final LinkedHashMap<String, ImageIcon> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes = -1; // computed on first disk write
+
+    public ImageCache(long maxMemoryBytes, long maxDiskBytes, File diskDir) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        this.diskDir = diskDir;
+    }
+
+    public static ImageCache fromSystemProperties() {
+        return new ImageCache(
+            Long.getLong("tracker.imageCache.memoryBytes", 64L * 1024 * 1024),
+            Long.getLong("tracker.imageCache.diskBytes", 256L * 1024 * 1024),
+            new File(System.getProperty("tracker.imageCache.dir", "cache/covers")));
+    }
+
+    // Memory tier
+
+    public synchronized ImageIcon getMemory(String key) {
+        ImageIcon icon = memory.get(key);
+        (icon != null ? MEMORY_HITS : MEMORY_MISSES).increment();
+        return icon;
+    }
+
+    public synchronized void putMemory(String key, ImageIcon icon) {
+        long size = sizeOf(icon);
+        if (size > maxMemoryBytes) return;
+        ImageIcon old = memory.put(key, icon);
+        if (old != null) memoryBytes -= sizeOf(old);
+        memoryBytes += size;
+        Iterator<Map.Entry<String, ImageIcon>> it = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && it.hasNext()) {
+            Map.Entry<String, ImageIcon> eldest = it.next();
+            memoryBytes -= sizeOf(eldest.getValue());
+            it.remove();
+            MEMORY_EVICTIONS.increment();
+        }
+    }
+
+    private static double hitRatio(Metrics.Counter hits, Metrics.Counter misses) {
+        long h = hits.getCount(), total = h + misses.getCount();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    private static long sizeOf(ImageIcon icon) {
+        return 4L * Math.max(1, icon.getIconWidth()) * Math.max(1, icon.getIconHeight());
+    }
+
+    public synchronized long getMemoryBytes() { return memoryBytes; }
+
+    // Disk tier
+
+    // A cover stored on disk, with the HTTP validators it was served with (either may be null)
+    public static class DiskEntry {
+        public final byte[] data;
+        public final String etag;
+        public final String lastModified;
+        // When the server last confirmed these bytes (download or 304)
+        public final long validatedAt;
+
+        DiskEntry(byte[] data, String etag, String lastModified, long validatedAt) {
+            this.data = data;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.validatedAt = validatedAt;
+        }
+    }
+
+    // Returns the stored cover for url, or null if it is not on disk.
+    public DiskEntry readDisk(String url) {
+        File f = diskFile(url);
+        if (!f.isFile()) {
+            DISK_MISSES.increment();
+            return null;
+        }
+        try {
+            byte[] data = Files.readAllBytes(f.toPath());
+            DISK_HITS.increment();
+            Metrics.fileBytes(f, "bytesRead", data.length);
+            Properties meta = readMeta(url);
+            long validatedAt = Long.parseLong(meta.getProperty("validatedAt", String.valueOf(f.lastModified())));
+            // lastModified doubles as the access time for LRU eviction
+            f.setLastModified(System.currentTimeMillis());
+            return new DiskEntry(data, meta.getProperty("etag"), meta.getProperty("lastModified"), validatedAt);
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public void writeDisk(String url, byte[] data, String etag, String lastModified) {
+        if (data.length > maxDiskBytes) return;
+        try {
+            Files.createDirectories(diskDir.toPath());
+            File file = diskFile(url);
+            // an overwritten cover (and its .meta) no longer counts
+            long oldBytes = file.length() + metaFile(url).length();
+            writeAtomically(file.toPath(), data);
+            int metaBytes = writeMeta(url, etag, lastModified);
+            addDiskBytes(data.length + metaBytes - oldBytes);
+        } catch (IOException e) {
+            // the disk tier is best effort; the image is still shown
+        }
+    }
+
+    // Records that the server confirmed the stored bytes are current (HTTP 304).
+    public void markValidated(String url) {
+        Properties meta = readMeta(url);
+        try {
+            long oldBytes = metaFile(url).length();
+            addDiskBytes(writeMeta(url, meta.getProperty("etag"), meta.getProperty("lastModified")) - oldBytes);
+        } catch (IOException e) {
+            // revalidated again next time
+        }
+    }
+
+    private synchronized void addDiskBytes(long delta) {
+        // the first write scans the directory, which already includes this one
+        if (diskBytes < 0) diskBytes = scanDiskBytes();
+        else diskBytes += delta;
+        if (diskBytes > maxDiskBytes) trimDisk();
+    }
+
+    synchronized long getDiskBytes() { return diskBytes; }
+
+    private Properties readMeta(String url) {
+        Properties meta = new Properties();
+        File f = metaFile(url);
+        if (f.isFile()) {
+            try (InputStream in = new FileInputStream(f)) {
+                meta.load(in);
+            } catch (IOException e) {
+                // treat as no validators
+            }
+        }
+        return meta;
+    }
+
+    // Returns the size of the .meta file written
+    private int writeMeta(String url, String etag, String lastModified) throws IOException {
+        Properties meta = new Properties();
+        if (etag != null) meta.setProperty("etag", etag);
+        if (lastModified != null) meta.setProperty("lastModified", lastModified);
+        meta.setProperty("validatedAt", String.valueOf(System.currentTimeMillis()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        meta.store(out, null);
+        writeAtomically(metaFile(url).toPath(), out.toByteArray());
+        return out.size();
+    }
+
+    private void writeAtomically(Path target, byte[] data) throws IOException {
+        Path tmp = Files.createTempFile(diskDir.toPath(), target.getFileName().toString() + ".", ".tmp");
+        try {
+            Files.write(tmp, data);
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private long scanDiskBytes() {
+        long total = 0;
+        File[] files = diskDir.listFiles();
+        if (files != null) for (File f : files) total += f.length();
+        return total;
+    }
+
+    // Deletes least recently used covers until the cache is back under 90% of its limit.
+    private void trimDisk() {
+        File[] files = diskDir.listFiles((d, name) -> !name.endsWith(".meta") && !name.endsWith(".tmp"));
+        if (files == null) return;
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        long target = maxDiskBytes * 9 / 10;
+        for (File f : files) {
+            if (diskBytes <= target) break;
+            File meta = new File(diskDir, f.getName() + ".meta");
+            long len = f.length() + meta.length();
+            if (f.delete()) {
+                meta.delete();
+                diskBytes -= len;
+                DISK_EVICTIONS.increment();
+            }
+        }
+    }
+
+    private File diskFile(String url) {
+        return new File(diskDir, sha256(url));
+    }
+
+    private File metaFile(String url) {
+        return new File(diskDir, sha256(url) + ".meta");
+    }
+
+    static String sha256(String s) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(s.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) sb.append(String.format("%02x", b));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
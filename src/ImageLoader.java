@@ -1,43 +1,378 @@
 import javax.swing.*;
+import javax.swing.event.AncestorEvent;
+import javax.swing.event.AncestorListener;
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.net.URL;
-import java.util.Map;
+import java.io.*;
+import java.util.*;
+import java.util.List;
 import java.util.concurrent.*;
 
 public class ImageLoader {
-    private static final Map<String, ImageIcon> imageCache = new ConcurrentHashMap<>();
-    private static final ExecutorService executor = Executors.newFixedThreadPool(3);
+    // Scaled icons in memory, original downloads on disk (see ImageCache)
+    private static final ImageCache imageCache = ImageCache.fromSystemProperties();
+    // Shared HTTP client: pooled connections, timeouts, retries, conditional requests
+    private static final CoverFetcher fetcher = CoverFetcher.fromSystemProperties();
+    // Disk copies older than this are revalidated with the server before use
+    private static final long REVALIDATE_AFTER_MS = Long.getLong("tracker.imageCache.revalidateAfterMs", 7L * 24 * 60 * 60 * 1000);
+    // Concurrent cover downloads; virtual threads are cheap, so this permit count is the real limit
+    private static final int MAX_CONCURRENT_FETCHES = Integer.getInteger("tracker.imageLoader.maxConcurrent", 6);
+    private static final Semaphore fetchPermits = new Semaphore(MAX_CONCURRENT_FETCHES);
+    private static final ExecutorService executor = IoExecutors.newIoExecutor("cover-loader", MAX_CONCURRENT_FETCHES);
+    // One fetch per url@size in flight; fetches not yet picked up by a thread, in request order
+    private static final Map<String, Fetch> inFlight = new ConcurrentHashMap<>();
+    private static final List<Fetch> pending = new ArrayList<>();
+
+    // With -Dtracker.metrics=true (see Metrics): a load is disk/network + decode + scale
+    private static final Metrics.Timer LOAD = Metrics.timer("ImageLoader.load");
+    private static final Metrics.Counter FAILURES = Metrics.counter("ImageLoader.failures");
+
+    static {
+        Metrics.gauge("ImageLoader.queueDepth", () -> {
+            synchronized (pending) {
+                return pending.size();
+            }
+        });
+        Metrics.gauge("ImageLoader.inFlight", inFlight::size);
+        Metrics.gauge("ImageLoader.activeFetches", () -> MAX_CONCURRENT_FETCHES - fetchPermits.availablePermits());
+        Metrics.gauge("ImageCache.memoryBytes", imageCache::getMemoryBytes);
+    }
     
+    // Call on the EDT. A later call for the same label supersedes this one.
     public static void loadImageAsync(String url, int width, int height, JLabel label) {
+        // The label's current waiter, if any; a recycled label ignores late results for an older URL
+        Object previous = label.getClientProperty(ImageLoader.class);
+        if (previous instanceof Waiter) ((Waiter) previous).detach();
+        label.putClientProperty(ImageLoader.class, null);
         if (url == null || url.trim().isEmpty()) {
             label.setIcon(createPlaceholderIcon(width, height));
             return;
         }
         
-        if (imageCache.containsKey(url)) {
-            label.setIcon(imageCache.get(url));
+        // Cache by URL and size, so a cover shown at two sizes gets an icon for each
+        String key = cacheKey(url, width, height);
+        ImageIcon cached = imageCache.getMemory(key);
+        if (cached != null) {
+            label.setIcon(cached);
             return;
         }
         
         label.setIcon(createPlaceholderIcon(width, height));
-        
-        executor.submit(() -> {
+
+        // Join the fetch already in flight for this cover, or start one
+        Waiter waiter = new Waiter(label);
+        label.putClientProperty(ImageLoader.class, waiter);
+        Fetch[] started = {null};
+        inFlight.compute(key, (k, fetch) -> {
+            if (fetch == null || !fetch.addWaiter(waiter)) {
+                fetch = new Fetch(key, url, width, height);
+                fetch.addWaiter(waiter);
+                started[0] = fetch;
+            }
+            return fetch;
+        });
+        if (started[0] != null) {
+            synchronized (pending) {
+                pending.add(started[0]);
+            }
+            // each task runs whichever pending fetch is most urgent when a thread frees up
+            executor.execute(ImageLoader::runNextFetch);
+        }
+    }
+
+    private static void runNextFetch() {
+        // Pick the fetch only once a permit is free, so it is the most urgent one at that moment
+        fetchPermits.acquireUninterruptibly();
+        try {
+            Fetch fetch = takeMostUrgent();
+            if (fetch != null) fetch.run();
+        } finally {
+            fetchPermits.release();
+        }
+    }
+
+    // Removes and returns the pending fetch with the most visible waiters; drops abandoned ones.
+    private static Fetch takeMostUrgent() {
+        synchronized (pending) {
+            Fetch best = null;
+            int bestPriority = Integer.MAX_VALUE;
+            Iterator<Fetch> it = pending.iterator();
+            while (it.hasNext()) {
+                Fetch f = it.next();
+                int priority = f.priority();
+                if (priority == Fetch.CANCELLED) {
+                    it.remove();
+                    continue;
+                }
+                // pending is in request order, so ties go to the oldest request
+                if (priority < bestPriority) {
+                    best = f;
+                    bestPriority = priority;
+                }
+            }
+            if (best != null) pending.remove(best);
+            return best;
+        }
+    }
+
+    /**
+     * A label waiting for a cover. Swing state is only read on the EDT: when
+     * the waiter is created and whenever the label or one of its ancestors is
+     * added, removed or moved (scrolling moves the grid inside its viewport).
+     * The loader threads only read the volatile results.
+     */
+    private static class Waiter implements AncestorListener {
+        final JLabel label;
+        // True until the EDT event that requested the image has finished (and added the card)
+        volatile boolean fresh = true;
+        // False once the label was given another image
+        private volatile boolean current = true;
+        private volatile boolean displayable;
+        private volatile boolean showing;
+        private volatile boolean visible;
+
+        Waiter(JLabel label) {
+            this.label = label;
+            update();
+            label.addAncestorListener(this);
+            SwingUtilities.invokeLater(() -> {
+                fresh = false;
+                update();
+            });
+        }
+
+        // EDT only
+        private void update() {
+            displayable = label.isDisplayable();
+            showing = label.isShowing();
+            visible = showing && !label.getVisibleRect().isEmpty();
+        }
+
+        public void ancestorAdded(AncestorEvent e) { update(); }
+        public void ancestorRemoved(AncestorEvent e) { update(); }
+        public void ancestorMoved(AncestorEvent e) { update(); }
+
+        // The label no longer wants this image, or has received it. EDT only.
+        void detach() {
+            current = false;
+            label.removeAncestorListener(this);
+        }
+
+        // Still wants this image: not recycled to another URL, and on screen (or about to be)
+        boolean isAlive() {
+            return current && (fresh || displayable);
+        }
+
+        boolean isVisible() {
+            return visible;
+        }
+
+        boolean isShowing() {
+            return showing;
+        }
+
+        void deliver(ImageIcon icon) {
+            SwingUtilities.invokeLater(() -> {
+                if (label.getClientProperty(ImageLoader.class) == this) label.setIcon(icon);
+                detach();
+            });
+        }
+    }
+
+    /**
+     * One download + decode + scale for a url@size key, shared by every label
+     * that asks for it while it is in flight. It is skipped if all of its
+     * labels were discarded or recycled before a thread picked it up.
+     */
+    private static class Fetch implements Runnable {
+        static final int VISIBLE = 0, SHOWING = 1, OFFSCREEN = 2, CANCELLED = Integer.MAX_VALUE;
+
+        final String key;
+        final String url;
+        final int width;
+        final int height;
+        private final List<Waiter> waiters = new ArrayList<>();
+        private boolean done;
+
+        Fetch(String key, String url, int width, int height) {
+            this.key = key;
+            this.url = url;
+            this.width = width;
+            this.height = height;
+        }
+
+        // Returns false once the fetch has finished or been cancelled; the caller starts a new one.
+        synchronized boolean addWaiter(Waiter waiter) {
+            if (done) return false;
+            waiters.add(waiter);
+            return true;
+        }
+
+        // Drops dead waiters and ranks the fetch; cancels it if nobody is left.
+        int priority() {
+            synchronized (this) {
+                waiters.removeIf(w -> {
+                    if (w.isAlive()) return false;
+                    SwingUtilities.invokeLater(w::detach);
+                    return true;
+                });
+                if (!waiters.isEmpty()) {
+                    int best = OFFSCREEN;
+                    for (Waiter w : waiters) {
+                        if (w.isVisible()) return VISIBLE;
+                        if (w.fresh || w.isShowing()) best = SHOWING;
+                    }
+                    return best;
+                }
+                done = true;
+            }
+            // outside the lock: inFlight.compute() takes the map lock, then ours
+            inFlight.remove(key, this);
+            return CANCELLED;
+        }
+
+        // Marks the fetch finished and returns everyone still waiting on it.
+        private List<Waiter> finish() {
+            inFlight.remove(key, this);
+            synchronized (this) {
+                done = true;
+                return new ArrayList<>(waiters);
+            }
+        }
+
+        @Override
+        public void run() {
+            long start = Metrics.start();
             try {
-                BufferedImage img = ImageIO.read(new URL(url));
+                byte[] data;
+                CoverFetcher.Result fetched = null;
+                // each stage is a flight recorder event (see TrackerEvents)
+                TrackerEvents.CoverFetch fetchEvent = new TrackerEvents.CoverFetch();
+                fetchEvent.begin();
+                String source;
+                ImageCache.DiskEntry cached = imageCache.readDisk(url);
+                if (cached != null && System.currentTimeMillis() - cached.validatedAt < REVALIDATE_AFTER_MS) {
+                    // A recently validated disk copy avoids the network entirely
+                    data = cached.data;
+                    source = "disk";
+                } else {
+                    try {
+                        fetched = fetcher.fetch(url, cached);
+                    } catch (IOException e) {
+                        // offline or server down: a stale cover beats a placeholder
+                        if (cached == null) {
+                            commitFetch(fetchEvent, "failed", 0);
+                            throw e;
+                        }
+                    }
+                    if (fetched == null || fetched.notModified) {
+                        data = cached.data;
+                        source = fetched == null ? "stale-disk" : "not-modified";
+                        if (fetched != null) imageCache.markValidated(url);
+                        fetched = null;
+                    } else {
+                        data = fetched.data;
+                        source = "network";
+                    }
+                }
+                commitFetch(fetchEvent, source, data.length);
+
+                TrackerEvents.CoverDecode decodeEvent = new TrackerEvents.CoverDecode();
+                decodeEvent.begin();
+                BufferedImage img = ImageIO.read(new ByteArrayInputStream(data));
+                decodeEvent.end();
+                if (decodeEvent.shouldCommit()) {
+                    decodeEvent.url = url;
+                    decodeEvent.decoded = img != null;
+                    if (img != null) {
+                        decodeEvent.width = img.getWidth();
+                        decodeEvent.height = img.getHeight();
+                    }
+                    decodeEvent.commit();
+                }
                 if (img != null) {
-                    Image scaledImg = img.getScaledInstance(width, height, Image.SCALE_SMOOTH);
-                    ImageIcon icon = new ImageIcon(scaledImg);
-                    imageCache.put(url, icon);
-                    SwingUtilities.invokeLater(() -> label.setIcon(icon));
+                    // only bytes that decoded are worth keeping
+                    if (fetched != null) imageCache.writeDisk(url, data, fetched.etag, fetched.lastModified);
+                    TrackerEvents.CoverScale scaleEvent = new TrackerEvents.CoverScale();
+                    scaleEvent.begin();
+                    ImageIcon icon = new ImageIcon(scale(img, width, height));
+                    scaleEvent.end();
+                    if (scaleEvent.shouldCommit()) {
+                        scaleEvent.url = url;
+                        scaleEvent.sourceWidth = img.getWidth();
+                        scaleEvent.sourceHeight = img.getHeight();
+                        scaleEvent.width = width;
+                        scaleEvent.height = height;
+                        scaleEvent.commit();
+                    }
+                    imageCache.putMemory(key, icon);
+                    for (Waiter w : finish()) w.deliver(icon);
+                } else {
+                    FAILURES.increment();
+                    finish();
                 }
             } catch (Exception e) {
-                SwingUtilities.invokeLater(() -> label.setIcon(createPlaceholderIcon(width, height)));
+                FAILURES.increment();
+                ImageIcon placeholder = createPlaceholderIcon(width, height);
+                for (Waiter w : finish()) w.deliver(placeholder);
+            } finally {
+                LOAD.stop(start);
             }
-        });
+        }
+
+        private void commitFetch(TrackerEvents.CoverFetch event, String source, long bytes) {
+            event.end();
+            if (!event.shouldCommit()) return;
+            event.url = url;
+            event.source = source;
+            event.bytes = bytes;
+            event.commit();
+        }
     }
     
+    static String cacheKey(String url, int width, int height) {
+        return url + "@" + width + "x" + height;
+    }
+
+    /**
+     * Scales img to exactly width x height, once, into an image in the screen's
+     * native format (so painting it is a straight copy). Large reductions are
+     * done in halving steps with bilinear filtering, which looks as good as
+     * SCALE_SMOOTH at a fraction of the cost and, unlike getScaledInstance,
+     * does not leave a lazy image that is scaled again when painted.
+     */
+    static BufferedImage scale(BufferedImage img, int width, int height) {
+        BufferedImage current = img;
+        int w = img.getWidth();
+        int h = img.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            // the last step (or a single upscale) goes straight to the target size
+            if (w < width * 2 && h < height * 2) {
+                w = width;
+                h = height;
+            }
+            BufferedImage next = createCompatibleImage(w, h, img.getTransparency());
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    private static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(width, height, transparency);
+        }
+        int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        return new BufferedImage(width, height, type);
+    }
+
     private static ImageIcon createPlaceholderIcon(int width, int height) {
         BufferedImage placeholder = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
         Graphics2D g2d = placeholder.createGraphics();
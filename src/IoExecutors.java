@@ -0,0 +1,58 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for blocking I/O that may run concurrently (cover downloads).
+ * TrackerAPI calls do not use it: they must run one at a time and in order,
+ * so AsyncTrackerAPI keeps its own single thread.
+ *
+ * The strategy comes from the tracker.executor system property:
+ * "virtual" runs each task on its own virtual thread (JDK 21+),
+ * "platform" uses a fixed pool of daemon threads, and
+ * "auto" (the default) picks virtual when the JDK has it, platform otherwise.
+ * Virtual threads are looked up reflectively so the app still builds and runs
+ * on older JDKs. Either way the threads never keep the JVM alive after the
+ * window closes.
+ */
+public final class IoExecutors {
+    private IoExecutors() {}
+
+    /**
+     * Returns an executor for blocking tasks. With platform threads the pool
+     * has poolSize threads; virtual threads are unbounded, so callers that must
+     * limit concurrency (e.g. politeness to a CDN) bound it themselves.
+     */
+    public static ExecutorService newIoExecutor(String name, int poolSize) {
+        return newIoExecutor(name, poolSize, System.getProperty("tracker.executor", "auto"));
+    }
+
+    // As newIoExecutor(name, poolSize), with mode "virtual", "platform" or "auto" instead of the property
+    public static ExecutorService newIoExecutor(String name, int poolSize, String mode) {
+        if (!"platform".equals(mode)) {
+            ExecutorService virtual = newVirtualThreadExecutor();
+            if (virtual != null) return virtual;
+            if ("virtual".equals(mode)) {
+                System.err.println("Virtual threads need JDK 21+; using a platform pool for " + name);
+            }
+        }
+        return newPlatformExecutor(name, poolSize);
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformExecutor(String name, int poolSize) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(poolSize, r -> {
+            Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
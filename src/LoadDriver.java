@@ -0,0 +1,220 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Replays a mixed workload against TrackerAPI on a data directory (e.g. one
+ * written by DatasetGenerator) and reports throughput and latency per
+ * operation:
+ *
+ *   java LoadDriver <dir> [--seconds N] [--threads N] [--seed N] [--mix login=1,dashboard=4,plusOne=10,edit=3,add=2]
+ *
+ * Each thread repeatedly picks a random user and an operation by the mix
+ * weights:
+ *   login      openUser (runs the ID repair the first time) and the dashboard build
+ *   dashboard  DashboardSnapshot.build, as after every change
+ *   plusOne    a burst of five +1 clicks on one entry (each click is timed)
+ *   edit       a new status and rating for one entry
+ *   add        addToUserList with a random catalog show
+ *
+ * The driver changes the user files in dir. The default of one thread
+ * matches the app, whose TrackerAPI calls all run on one I/O thread.
+ */
+public class LoadDriver {
+    private static final String[] OPERATIONS = {"login", "dashboard", "plusOne", "edit", "add"};
+    private static final List<EntryStatus> ANIME_STATUSES = ShowType.ANIME.getStatuses();
+
+    private final TrackerAPI api;
+    private final List<String> users;
+    private final int[] weights;
+    // Latencies in nanoseconds, per operation
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+    public LoadDriver(TrackerAPI api, List<String> users, int[] weights) {
+        this.api = api;
+        this.users = users;
+        this.weights = weights;
+        for (String op : OPERATIONS) recorders.put(op, new Recorder());
+    }
+
+    // Runs threads workers for the given time; returns the report
+    public String run(int threads, long seconds, long seed) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(seed + t);
+            workers.add(pool.submit(() -> {
+                while (System.nanoTime() < deadline) step(random);
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Worker failed", e.getCause());
+            }
+        }
+        pool.shutdown();
+        long flushStart = System.nanoTime();
+        api.flushPendingWrites();
+        long end = System.nanoTime();
+        return report((end - start) / 1e9, (end - flushStart) / 1e6);
+    }
+
+    private void step(Random random) throws IOException {
+        String user = users.get(random.nextInt(users.size()));
+        String op = OPERATIONS[pick(random)];
+        switch (op) {
+            case "login":
+                time(op, () -> {
+                    api.openUser(user);
+                    DashboardSnapshot.build(api, user);
+                });
+                break;
+            case "dashboard":
+                time(op, () -> DashboardSnapshot.build(api, user));
+                break;
+            case "plusOne": {
+                UserShowEntry entry = randomEntry(user, random);
+                if (entry == null) break;
+                int progress = entry.getProgress();
+                for (int click = 0; click < 5; click++) {
+                    int next = ++progress;
+                    time(op, () -> api.updateUserEntry(user, entry.getShowId(), "ANIME", entry.getStatus(), next, entry.getRating()));
+                }
+                break;
+            }
+            case "edit": {
+                UserShowEntry entry = randomEntry(user, random);
+                if (entry == null) break;
+                String status = ANIME_STATUSES.get(random.nextInt(ANIME_STATUSES.size())).getLabel();
+                int rating = random.nextInt(11);
+                time(op, () -> api.updateUserEntry(user, entry.getShowId(), "ANIME", status, entry.getProgress(), rating));
+                break;
+            }
+            case "add": {
+                List<Anime> catalog = api.getAllAnime();
+                if (catalog.isEmpty()) break;
+                Anime anime = catalog.get(random.nextInt(catalog.size()));
+                time(op, () -> api.addToUserList(user, anime.getId(), "Plan to Watch", "ANIME", 0));
+                break;
+            }
+        }
+    }
+
+    // One of the user's anime entries, or null if the list has none
+    private UserShowEntry randomEntry(String user, Random random) {
+        List<UserShowEntry> all = new ArrayList<>();
+        for (List<UserShowEntry> byStatus : api.getUserAnimeByStatus(user).values()) all.addAll(byStatus);
+        return all.isEmpty() ? null : all.get(random.nextInt(all.size()));
+    }
+
+    private int pick(Random random) {
+        int total = 0;
+        for (int w : weights) total += w;
+        int r = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws IOException;
+    }
+
+    private void time(String op, Operation operation) throws IOException {
+        long start = System.nanoTime();
+        operation.run();
+        recorders.get(op).record(System.nanoTime() - start);
+    }
+
+    private String report(double elapsedSeconds, double flushMs) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-10s %9s %10s %10s %10s %10s%n", "operation", "count", "ops/s", "p50 ms", "p99 ms", "max ms"));
+        long total = 0;
+        for (String op : OPERATIONS) {
+            long[] samples = recorders.get(op).samples();
+            total += samples.length;
+            if (samples.length == 0) {
+                sb.append(String.format("%-10s %9d%n", op, 0));
+                continue;
+            }
+            Arrays.sort(samples);
+            sb.append(String.format("%-10s %9d %10.1f %10.3f %10.3f %10.3f%n", op, samples.length,
+                samples.length / elapsedSeconds, percentile(samples, 0.50) / 1e6, percentile(samples, 0.99) / 1e6,
+                samples[samples.length - 1] / 1e6));
+        }
+        sb.append(String.format("%d operations in %.1f s (%.1f ops/s); final flush of pending writes %.1f ms",
+            total, elapsedSeconds, total / elapsedSeconds, flushMs));
+        return sb.toString();
+    }
+
+    // Nearest-rank percentile of sorted samples
+    static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    // An append-only list of latencies, shared by the worker threads
+    private static class Recorder {
+        private long[] samples = new long[1024];
+        private int size;
+
+        synchronized void record(long nanos) {
+            if (size == samples.length) samples = Arrays.copyOf(samples, size * 2);
+            samples[size++] = nanos;
+        }
+
+        synchronized long[] samples() {
+            return Arrays.copyOf(samples, size);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            System.out.println("usage: java LoadDriver <dir> [--seconds N] [--threads N] [--seed N] [--mix login=1,dashboard=4,plusOne=10,edit=3,add=2]");
+            return;
+        }
+        Map<String, String> options = DatasetGenerator.parseOptions(args, 1);
+        long seconds = Long.parseLong(options.getOrDefault("seconds", "30"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "1"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        int[] weights = parseMix(options.getOrDefault("mix", "login=1,dashboard=4,plusOne=10,edit=3,add=2"));
+
+        File usersDir = new File(args[0], "users");
+        File[] files = usersDir.listFiles((d, name) -> name.endsWith(".txt"));
+        if (files == null || files.length == 0) {
+            System.out.println("No users in " + usersDir + "; create a dataset with DatasetGenerator first");
+            return;
+        }
+        List<String> users = new ArrayList<>();
+        for (File f : files) users.add(f.getName().substring(0, f.getName().length() - ".txt".length()));
+        Collections.sort(users);
+
+        TrackerAPI api = new TrackerAPI(args[0]);
+        long loadStart = System.nanoTime();
+        int catalogSize = api.getAllAnime().size();
+        System.out.printf("%d users, %d anime (catalog loaded in %d ms); running %d thread(s) for %d s%n",
+            users.size(), catalogSize, (System.nanoTime() - loadStart) / 1_000_000, threads, seconds);
+        System.out.println(new LoadDriver(api, users, weights).run(threads, seconds, seed));
+    }
+
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[OPERATIONS.length];
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            int index = Arrays.asList(OPERATIONS).indexOf(kv[0]);
+            if (index < 0 || kv.length != 2) throw new IllegalArgumentException("Unknown mix entry: " + part);
+            weights[index] = Integer.parseInt(kv[1]);
+        }
+        if (Arrays.stream(weights).sum() <= 0) throw new IllegalArgumentException("Mix has no weight: " + mix);
+        return weights;
+    }
+}
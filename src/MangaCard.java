@@ -3,11 +3,17 @@ import java.awt.*;
 import java.awt.event.*;
 
 public class MangaCard extends Card {
+    private Manga manga;
+    private UserShowEntry entry;
+
     public MangaCard(Manga manga, UserShowEntry entry, String status, AnimeTrackerApp app) {
         super(manga.getTitle(), manga.getImageUrl(), entry.getProgress(), manga.getTotalChapters(), entry.getRating(), "Manga");
+        this.manga = manga;
+        this.entry = entry;
+        this.status = status;
 
         MouseAdapter clickListener = new MouseAdapter() {
-            public void mouseClicked(MouseEvent e) { EditDialogs.editManga(app, manga.getId(), status); }
+            public void mouseClicked(MouseEvent e) { EditDialogs.editManga(app, MangaCard.this.manga.getId(), getStatus()); }
             public void mouseEntered(MouseEvent e) { setBorderOnInnerCard(true); }
             public void mouseExited(MouseEvent e) { setBorderOnInnerCard(false); }
         };
@@ -15,27 +21,39 @@ public class MangaCard extends Card {
         this.poster.addMouseListener(clickListener);
 
         this.inc.addActionListener(ae -> {
-            int newVal = Math.min(manga.getTotalChapters(), entry.getProgress() + 1);
-            entry.setProgress(newVal);
+            // work on a copy so the dashboard can see which tab the entry is moving from
+            UserShowEntry updated = this.entry.copy();
+            int newVal = Math.min(this.manga.getTotalChapters(), updated.getProgress() + 1);
+            updated.setProgress(newVal);
 
-            if (newVal >= manga.getTotalChapters() && !"Completed".equals(entry.getStatus())) {
+            if (newVal >= this.manga.getTotalChapters() && !"Completed".equals(updated.getStatus())) {
                 int choice = JOptionPane.showConfirmDialog(app,
                     "You've read all chapters. Mark as Completed?",
                     "Complete Manga", JOptionPane.YES_NO_OPTION);
                 if (choice == JOptionPane.YES_OPTION) {
-                    entry.setStatus("Completed");
+                    updated.setStatus("Completed");
                 }
             }
 
-            this.progressLabel.setText(newVal + " / " + manga.getTotalChapters());
-            this.progressBar.setValue(newVal);
-            try {
-                app.api.updateUserEntry(app.currentUser, manga.getId(), "MANGA", entry.getStatus(), newVal, entry.getRating());
-                app.showUserDashboard();
-            } catch (Exception ex) { }
+            setProgress(newVal, this.manga.getTotalChapters());
+            // a second click before the write lands continues from this value
+            this.entry = updated;
+
+            String id = this.manga.getId();
+            SwingAsync.run(app, app.async.updateUserEntry(app.currentUser, id, "MANGA", updated.getStatus(), newVal, updated.getRating()),
+                done -> app.refreshEntry("MANGA", id),
+                // put the card back to what is on disk
+                ex -> app.refreshEntry("MANGA", id));
         });
     }
 
+    @Override
+    public void bind(Show show, UserShowEntry entry) {
+        this.manga = (Manga) show;
+        this.entry = entry;
+        bindFields(manga.getTitle(), manga.getImageUrl(), entry.getProgress(), manga.getTotalChapters(), entry.getRating(), entry.getStatus());
+    }
+
     private void setBorderOnInnerCard(boolean highlight) {
         Component c = getComponentCount() > 0 ? getComponent(0) : null;
         if (c instanceof JComponent) {
@@ -0,0 +1,252 @@
+import javax.management.ObjectName;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Timers, counters and gauges for the storage and image code, off unless the
+ * app runs with -Dtracker.metrics=true. Disabled, every call returns on a
+ * static final flag, which the JIT removes entirely.
+ *
+ * Enabled, each metric is registered as an MXBean under "animetracker:"
+ * (browse them with jconsole or VisualVM) and all of them are printed to
+ * stderr every -Dtracker.metrics.dumpSeconds (default 60; 0 only prints at
+ * exit).
+ *
+ *   private static final Metrics.Timer LOAD = Metrics.timer("TrackerAPI.openUser");
+ *   long start = Metrics.start();
+ *   try { ... } finally { LOAD.stop(start); }
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("tracker.metrics");
+
+    private static final Map<String, Object> metrics = new ConcurrentSkipListMap<>();
+
+    static {
+        if (ENABLED) startDumping(Long.getLong("tracker.metrics.dumpSeconds", 60));
+    }
+
+    private Metrics() {
+    }
+
+    public interface TimerMXBean {
+        long getCount();
+        double getMeanMillis();
+        double getMaxMillis();
+        double get50thPercentileMillis();
+        double get99thPercentileMillis();
+    }
+
+    public interface CounterMXBean {
+        long getCount();
+    }
+
+    public interface GaugeMXBean {
+        double getValue();
+    }
+
+    /**
+     * Latencies of one operation: count, mean, max and a histogram with four
+     * buckets per power of two (percentiles are within about 20%).
+     */
+    public static final class Timer implements TimerMXBean {
+        private static final int SUB_BUCKETS = 4;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+
+        // Records the time since start (from Metrics.start()).
+        public void stop(long start) {
+            if (ENABLED) record(System.nanoTime() - start);
+        }
+
+        public void record(long nanos) {
+            if (!ENABLED) return;
+            if (nanos < 0) nanos = 0;
+            count.increment();
+            totalNanos.add(nanos);
+            long max;
+            while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+                // retry
+            }
+            buckets.incrementAndGet(bucket(nanos));
+        }
+
+        private static int bucket(long nanos) {
+            if (nanos < SUB_BUCKETS) return (int) nanos;
+            int log = 63 - Long.numberOfLeadingZeros(nanos);
+            // the two bits below the leading one pick the sub-bucket
+            int sub = (int) (nanos >>> (log - 2)) & (SUB_BUCKETS - 1);
+            return log * SUB_BUCKETS + sub;
+        }
+
+        // Upper bound of a bucket, in nanoseconds
+        private static long bucketLimit(int bucket) {
+            if (bucket < SUB_BUCKETS) return bucket;
+            int log = bucket / SUB_BUCKETS;
+            int sub = bucket % SUB_BUCKETS;
+            return (1L << log) + ((long) (sub + 1) << (log - 2)) - 1;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getMeanMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / 1e6 / n;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1e6;
+        }
+
+        public double get50thPercentileMillis() {
+            return percentileMillis(0.50);
+        }
+
+        public double get99thPercentileMillis() {
+            return percentileMillis(0.99);
+        }
+
+        public double percentileMillis(double p) {
+            long n = 0;
+            long[] snapshot = new long[buckets.length()];
+            for (int i = 0; i < snapshot.length; i++) n += snapshot[i] = buckets.get(i);
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(p * n);
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) return Math.min(bucketLimit(i), maxNanos.get()) / 1e6;
+            }
+            return getMaxMillis();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms",
+                getCount(), getMeanMillis(), get50thPercentileMillis(), get99thPercentileMillis(), getMaxMillis());
+        }
+    }
+
+    public static final class Counter implements CounterMXBean {
+        private final LongAdder count = new LongAdder();
+
+        public void increment() {
+            if (ENABLED) count.increment();
+        }
+
+        public void add(long n) {
+            if (ENABLED) count.add(n);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(getCount());
+        }
+    }
+
+    // A value read when it is reported (queue depths, cache sizes, ratios)
+    public static final class Gauge implements GaugeMXBean {
+        private final DoubleSupplier value;
+
+        Gauge(DoubleSupplier value) {
+            this.value = value;
+        }
+
+        public double getValue() {
+            return value.getAsDouble();
+        }
+
+        @Override
+        public String toString() {
+            double v = getValue();
+            return v == Math.rint(v) ? String.valueOf((long) v) : String.format("%.3f", v);
+        }
+    }
+
+    // System.nanoTime() when metrics are on, 0 otherwise (no clock read).
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    public static Timer timer(String name) {
+        return register(name, "Timer", new Timer());
+    }
+
+    public static Counter counter(String name) {
+        return register(name, "Counter", new Counter());
+    }
+
+    // Registers a gauge; does nothing (and never calls value) when metrics are off.
+    public static void gauge(String name, DoubleSupplier value) {
+        if (ENABLED) register(name, "Gauge", new Gauge(value));
+    }
+
+    /**
+     * Counts bytes read from or written to a file, grouped by kind: the file
+     * name for the catalogs, "users/*.txt" etc. for per-user files.
+     */
+    public static void fileBytes(File file, String direction, long bytes) {
+        if (!ENABLED || bytes <= 0) return;
+        counter("file." + fileKind(file) + "." + direction).add(bytes);
+    }
+
+    static String fileKind(File file) {
+        File parent = file.getAbsoluteFile().getParentFile();
+        String name = file.getName();
+        if (parent != null && "users".equals(parent.getName())) {
+            int dot = name.lastIndexOf('.');
+            return "users/*" + (dot >= 0 ? name.substring(dot) : "");
+        }
+        return name;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T register(String name, String type, T metric) {
+        // timers and counters are shared by name, so a repeated lookup returns the same one
+        Object existing = metrics.putIfAbsent(name, metric);
+        if (existing != null) return (T) existing;
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metric,
+                    new ObjectName("animetracker:type=" + type + ",name=" + ObjectName.quote(name)));
+            } catch (Exception e) {
+                // still counted and dumped, just not visible over JMX
+            }
+        }
+        return metric;
+    }
+
+    // Every metric, one per line, sorted by name
+    public static String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Object> e : metrics.entrySet()) {
+            sb.append("[metrics] ").append(e.getKey()).append(' ').append(e.getValue()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void startDumping(long seconds) {
+        if (seconds > 0) {
+            ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "metrics-dump");
+                t.setDaemon(true);
+                return t;
+            });
+            dumper.scheduleAtFixedRate(() -> System.err.print(dump()), seconds, seconds, TimeUnit.SECONDS);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(dump()), "metrics-final-dump"));
+    }
+}
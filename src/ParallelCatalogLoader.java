@@ -0,0 +1,148 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Parses a large catalog text file on several threads: the file is cut into
+ * byte ranges that end on a line break, each range is parsed on a fork-join
+ * pool, and the results are joined back in file order, so the list is the
+ * same as a line-by-line read.
+ *
+ * Files under 1 MB, and files in a charset where a '\n' byte is not always a
+ * line break (e.g. UTF-16), are read on the calling thread.
+ *
+ * -Dtracker.catalog.loadThreads=<n> sets the number of threads (default: all
+ * cores, through the common pool); 1 always reads on the calling thread.
+ */
+public class ParallelCatalogLoader {
+    private static final long MIN_PARALLEL_BYTES = 1 << 20;
+    private static final int MIN_CHUNK_BYTES = 256 * 1024;
+    private static final int MAX_CHUNK_BYTES = 8 << 20;
+
+    private static ForkJoinPool sharedPool;
+
+    // The pool catalogs are loaded on, or null to load on the calling thread
+    static synchronized ForkJoinPool defaultPool() {
+        int threads = Integer.getInteger("tracker.catalog.loadThreads", 0);
+        if (threads == 1) return null;
+        if (threads <= 0) return ForkJoinPool.commonPool();
+        if (sharedPool == null) sharedPool = new ForkJoinPool(threads);
+        return sharedPool;
+    }
+
+    /**
+     * Returns the shows parsed from file, in file order. parser gets each
+     * non-blank line and returns null to skip it. pool null parses on the
+     * calling thread.
+     */
+    public static <T> List<T> load(File file, Function<RecordReader, T> parser, ForkJoinPool pool) throws IOException {
+        Charset charset = Charset.defaultCharset();
+        if (pool == null || pool.getParallelism() < 2 || file.length() < MIN_PARALLEL_BYTES || !newlineSafe(charset)) {
+            List<T> shows = new ArrayList<>();
+            try (RecordReader reader = RecordReader.open(file)) {
+                parseAll(reader, parser, shows);
+            }
+            return shows;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, pool.getParallelism());
+            List<ForkJoinTask<List<T>>> tasks = new ArrayList<>(bounds.length - 1);
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i], end = bounds[i + 1];
+                tasks.add(pool.submit(() -> parseChunk(channel, start, end, charset, parser)));
+            }
+            List<T> shows = new ArrayList<>();
+            for (ForkJoinTask<List<T>> task : tasks) {
+                try {
+                    shows.addAll(task.join());
+                } catch (RuntimeException e) {
+                    // join may rethrow a copy of the task's exception, so look for the IOException inside
+                    for (Throwable t = e; t != null; t = t.getCause()) {
+                        if (t instanceof IOException) throw (IOException) t;
+                    }
+                    throw e;
+                }
+            }
+            return shows;
+        }
+    }
+
+    private static <T> void parseAll(RecordReader reader, Function<RecordReader, T> parser, List<T> into) throws IOException {
+        while (reader.next()) {
+            if (reader.isBlank()) continue;
+            T show = parser.apply(reader);
+            if (show != null) into.add(show); // null is a malformed line
+        }
+    }
+
+    private static <T> List<T> parseChunk(FileChannel channel, long start, long end, Charset charset,
+                                          Function<RecordReader, T> parser) {
+        try {
+            byte[] bytes = new byte[(int) (end - start)];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                // positional reads, so the chunks do not share the channel's position
+                if (channel.read(buffer, start + buffer.position()) < 0) break;
+            }
+            List<T> shows = new ArrayList<>(bytes.length / 64);
+            try (RecordReader reader = new RecordReader(
+                    new InputStreamReader(new ByteArrayInputStream(bytes, 0, buffer.position()), charset))) {
+                parseAll(reader, parser, shows);
+            }
+            return shows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Chunk boundaries: 0, each cut just past a '\n', and the file size.
+     * About four chunks per thread, so a slow chunk does not hold up the rest.
+     */
+    private static long[] chunkBounds(FileChannel channel, int threads) throws IOException {
+        long size = channel.size();
+        long target = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, size / (threads * 4L)));
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long cut = target;
+        while (cut < size) {
+            long lineEnd = nextLineStart(channel, cut, probe);
+            if (lineEnd >= size) break;
+            bounds.add(lineEnd);
+            cut = lineEnd + target;
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) result[i] = bounds.get(i);
+        return result;
+    }
+
+    // The position just past the first '\n' at or after from (the file size if there is none)
+    private static long nextLineStart(FileChannel channel, long from, ByteBuffer probe) throws IOException {
+        long position = from;
+        while (true) {
+            probe.clear();
+            int n = channel.read(probe, position);
+            if (n <= 0) return channel.size();
+            for (int i = 0; i < n; i++) {
+                if (probe.get(i) == '\n') return position + i + 1;
+            }
+            position += n;
+        }
+    }
+
+    // True if a 0x0A byte can only ever be a line break in this charset
+    private static boolean newlineSafe(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+            || charset.equals(StandardCharsets.ISO_8859_1) || charset.name().startsWith("windows-125");
+    }
+}
@@ -0,0 +1,250 @@
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Reads pipe-delimited records (one per line) as used by the catalog files,
+ * the user lists and their journals, without String.split: lines are scanned
+ * in a reused char buffer, field boundaries are kept as offsets, ints are
+ * parsed straight from the buffer, and a String is only created for a field
+ * that is asked for (or none, when it matches a known constant).
+ *
+ * A '|' or '\' inside a field is written escaped as "\|" or "\\" (see
+ * escape()); line breaks as "\n" and "\r". A backslash before any other
+ * character is kept as is, so files written before escaping existed still
+ * read the same.
+ *
+ *   RecordReader r = new RecordReader(reader);
+ *   while (r.next()) {
+ *       if (r.isBlank()) continue;
+ *       String id = r.string(0);
+ *       int total = r.intField(3, -1);
+ *   }
+ */
+public class RecordReader implements Closeable {
+    private final Reader in;
+    private char[] buf;
+    private int bufStart;   // start of the current line in buf
+    private int bufEnd;     // end of the data read so far
+    private int nextStart;  // where the next line starts
+    private boolean afterCr;
+    private boolean eof;
+
+    private int lineStart, lineEnd;
+    private int fieldCount;
+    private int[] fieldStarts = new int[8];
+    private int[] fieldEnds = new int[8];
+    private boolean lineHasEscape;
+
+    public RecordReader(Reader in) {
+        this(in, 8192);
+    }
+
+    private RecordReader(Reader in, int bufferSize) {
+        this.in = in;
+        this.buf = new char[bufferSize];
+    }
+
+    // A reader already positioned on line, for parsing a single record.
+    public static RecordReader forLine(String line) {
+        RecordReader r = new RecordReader(null, Math.max(1, line.length()));
+        line.getChars(0, line.length(), r.buf, 0);
+        r.bufEnd = line.length();
+        r.eof = true;
+        r.split(0, r.bufEnd);
+        r.nextStart = r.bufEnd;
+        return r;
+    }
+
+    public static RecordReader open(File file) throws IOException {
+        return new RecordReader(new InputStreamReader(new FileInputStream(file)));
+    }
+
+    /**
+     * Moves to the next line; returns false at end of input. The previous
+     * line's fields are invalid afterwards.
+     */
+    public boolean next() throws IOException {
+        bufStart = nextStart;
+        if (afterCr) {
+            // a "\r\n" pair is one line break
+            afterCr = false;
+            if (bufStart == bufEnd && !eof) fill();
+            if (bufStart < bufEnd && buf[bufStart] == '\n') bufStart++;
+        }
+        int scan = bufStart;
+        while (true) {
+            for (; scan < bufEnd; scan++) {
+                char c = buf[scan];
+                if (c == '\n' || c == '\r') {
+                    split(bufStart, scan);
+                    nextStart = scan + 1;
+                    afterCr = c == '\r';
+                    return true;
+                }
+            }
+            if (eof) {
+                if (bufStart >= bufEnd) return false;
+                split(bufStart, bufEnd);
+                nextStart = bufEnd;
+                return true;
+            }
+            int scanned = scan - bufStart;
+            fill();
+            scan = bufStart + scanned;
+        }
+    }
+
+    // Moves the unread part of the buffer to the front (growing it if one line fills it) and reads more.
+    private void fill() throws IOException {
+        int remaining = bufEnd - bufStart;
+        if (remaining == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        } else if (bufStart > 0) {
+            System.arraycopy(buf, bufStart, buf, 0, remaining);
+        }
+        bufStart = 0;
+        bufEnd = remaining;
+        int n = in.read(buf, bufEnd, buf.length - bufEnd);
+        if (n < 0) eof = true;
+        else bufEnd += n;
+    }
+
+    private void split(int start, int end) {
+        lineStart = start;
+        lineEnd = end;
+        lineHasEscape = false;
+        fieldCount = 0;
+        int fieldStart = start;
+        for (int i = start; i < end; i++) {
+            char c = buf[i];
+            if (c == '\\' && i + 1 < end) {
+                lineHasEscape = true;
+                i++;
+            } else if (c == '|') {
+                addField(fieldStart, i);
+                fieldStart = i + 1;
+            }
+        }
+        addField(fieldStart, end);
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    // True if the current line is empty or only whitespace.
+    public boolean isBlank() {
+        for (int i = lineStart; i < lineEnd; i++) {
+            if (!Character.isWhitespace(buf[i])) return false;
+        }
+        return true;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    // The raw text of the current line (kept verbatim for lines that do not parse).
+    public String line() {
+        return new String(buf, lineStart, lineEnd - lineStart);
+    }
+
+    // Field i, unescaped; "" if the line has fewer fields.
+    public String string(int i) {
+        if (i >= fieldCount) return "";
+        int start = fieldStarts[i], end = fieldEnds[i];
+        if (!lineHasEscape) return new String(buf, start, end - start);
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int p = start; p < end; p++) {
+            char c = buf[p];
+            if (c == '\\' && p + 1 < end) {
+                char e = buf[p + 1];
+                if (e == '|' || e == '\\') { sb.append(e); p++; continue; }
+                if (e == 'n') { sb.append('\n'); p++; continue; }
+                if (e == 'r') { sb.append('\r'); p++; continue; }
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Field i, returning the matching constant from known instead of a new
+     * String when there is one (statuses, types).
+     */
+    public String string(int i, String[] known) {
+        if (i < fieldCount) {
+            for (String k : known) {
+                if (fieldEquals(i, k)) return k;
+            }
+        }
+        return string(i);
+    }
+
+    public boolean fieldEquals(int i, String s) {
+        if (i >= fieldCount) return false;
+        int start = fieldStarts[i], len = fieldEnds[i] - start;
+        if (len != s.length()) return false;
+        for (int k = 0; k < len; k++) {
+            if (buf[start + k] != s.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Field i as a decimal int, parsed in place; def if it is missing, empty,
+     * not a number or out of range.
+     */
+    public int intField(int i, int def) {
+        if (i >= fieldCount) return def;
+        int p = fieldStarts[i], end = fieldEnds[i];
+        if (p == end) return def;
+        boolean negative = buf[p] == '-';
+        if (negative || buf[p] == '+') {
+            if (++p == end) return def;
+        }
+        long value = 0;
+        for (; p < end; p++) {
+            int d = buf[p] - '0';
+            if (d < 0 || d > 9) return def;
+            value = value * 10 + d;
+            if (value > Integer.MAX_VALUE + 1L) return def;
+        }
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) return def;
+        return (int) value;
+    }
+
+    // Escapes a field value for writing: '\' and '|' get a backslash, line breaks become \n / \r.
+    public static String escape(String s) {
+        if (s == null) return "";
+        int i = 0;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c == '|' || c == '\\' || c == '\n' || c == '\r') break;
+            i++;
+        }
+        if (i == s.length()) return s;
+        StringBuilder sb = new StringBuilder(s.length() + 4);
+        sb.append(s, 0, i);
+        for (; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '|' || c == '\\') sb.append('\\').append(c);
+            else if (c == '\n') sb.append("\\n");
+            else if (c == '\r') sb.append("\\r");
+            else sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) in.close();
+    }
+}
@@ -0,0 +1,35 @@
+import java.util.List;
+
+/**
+ * The two kinds of list entry. The names are what the files store in the
+ * TYPE field and what Show.getType() returns.
+ */
+public enum ShowType {
+    ANIME(EntryStatus.WATCHING, EntryStatus.COMPLETED, EntryStatus.PLAN_TO_WATCH, EntryStatus.DROPPED),
+    MANGA(EntryStatus.READING, EntryStatus.COMPLETED, EntryStatus.PLAN_TO_READ, EntryStatus.DROPPED);
+
+    private static final ShowType[] VALUES = values();
+
+    private final List<EntryStatus> statuses;
+
+    ShowType(EntryStatus... statuses) {
+        this.statuses = List.of(statuses);
+    }
+
+    // The statuses entries of this type can have, in dashboard tab order.
+    public List<EntryStatus> getStatuses() {
+        return statuses;
+    }
+
+    static ShowType byCode(int code) {
+        return VALUES[code];
+    }
+
+    // The type named s, or null if s is not a known type.
+    public static ShowType of(String s) {
+        for (ShowType t : VALUES) {
+            if (t.name().equals(s)) return t;
+        }
+        return null;
+    }
+}
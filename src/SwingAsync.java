@@ -0,0 +1,63 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Glue between AsyncTrackerAPI futures and Swing. Callbacks always run on the
+ * EDT. While a call is outstanding the window shows a wait cursor; it only
+ * appears if the call takes longer than BUSY_DELAY_MS, so fast calls do not
+ * flicker.
+ */
+public final class SwingAsync {
+    private static final int BUSY_DELAY_MS = 150;
+
+    private SwingAsync() {}
+
+    /**
+     * Runs onSuccess with the result on the EDT, or shows the error in a
+     * message dialog over owner.
+     */
+    public static <T> void run(Component owner, CompletableFuture<T> future, Consumer<? super T> onSuccess) {
+        run(owner, future, onSuccess, e -> JOptionPane.showMessageDialog(owner, "Error: " + e.getMessage()));
+    }
+
+    public static <T> void run(Component owner, CompletableFuture<T> future,
+                               Consumer<? super T> onSuccess, Consumer<? super Throwable> onError) {
+        Window window = owner == null ? null
+            : owner instanceof Window ? (Window) owner : SwingUtilities.getWindowAncestor(owner);
+        boolean[] shown = {false};
+        Timer busy = new Timer(BUSY_DELAY_MS, e -> {
+            shown[0] = true;
+            setBusy(window, 1);
+        });
+        busy.setRepeats(false);
+        busy.start();
+
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            busy.stop();
+            if (shown[0]) setBusy(window, -1);
+            if (error == null) onSuccess.accept(result);
+            else onError.accept(unwrap(error));
+        }));
+    }
+
+    // Counts slow calls per window; the cursor is restored when the last one finishes
+    private static void setBusy(Window window, int delta) {
+        if (!(window instanceof RootPaneContainer)) return;
+        JRootPane root = ((RootPaneContainer) window).getRootPane();
+        Integer count = (Integer) root.getClientProperty(SwingAsync.class);
+        int n = Math.max(0, (count == null ? 0 : count) + delta);
+        root.putClientProperty(SwingAsync.class, n);
+        root.setCursor(n > 0 ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+}
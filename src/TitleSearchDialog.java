@@ -0,0 +1,212 @@
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Modal type-ahead picker for a catalog show. Each pause in typing runs one
+ * search off the EDT (through the catalog's title index) and shows the top
+ * results with cover thumbnails; results of a search that was overtaken by
+ * newer typing are dropped. Up/Down move the selection, Enter or a double
+ * click picks, Escape cancels.
+ *
+ * The rows are a fixed set of components rebound for every result list, so a
+ * keystroke never creates components and thumbnails go through ImageLoader
+ * like the dashboard covers.
+ */
+public class TitleSearchDialog<T extends Show> extends JDialog {
+    private static final int MAX_RESULTS = 20;
+    private static final int DEBOUNCE_MS = 150;
+    private static final int THUMB_WIDTH = 40;
+    private static final int THUMB_HEIGHT = 56;
+
+    private final Function<String, CompletableFuture<List<T>>> search;
+    private final Function<T, String> details;
+    private final JTextField queryField = new JTextField();
+    private final JLabel statusLabel = new JLabel("Type to search");
+    private final List<ResultRow> rows = new ArrayList<>();
+    private final Timer debounce;
+    private List<T> results = Collections.emptyList();
+    private int selected = -1;
+    // Bumped for every search; a reply for an older one is ignored
+    private int searchSeq;
+    private T chosen;
+
+    private TitleSearchDialog(Window owner, String title, Function<String, CompletableFuture<List<T>>> search,
+                              Function<T, String> details) {
+        super(owner, title, ModalityType.APPLICATION_MODAL);
+        this.search = search;
+        this.details = details;
+
+        JPanel content = new JPanel(new BorderLayout(0, 8));
+        content.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        content.setBackground(Theme.BACKGROUND);
+
+        queryField.setFont(new Font("Arial", Font.PLAIN, 16));
+        content.add(queryField, BorderLayout.NORTH);
+
+        JPanel list = new JPanel();
+        list.setLayout(new BoxLayout(list, BoxLayout.Y_AXIS));
+        list.setBackground(Color.WHITE);
+        for (int i = 0; i < MAX_RESULTS; i++) {
+            ResultRow row = new ResultRow(i);
+            row.setVisible(false);
+            rows.add(row);
+            list.add(row);
+        }
+        JPanel listHolder = new JPanel(new BorderLayout());
+        listHolder.setBackground(Color.WHITE);
+        listHolder.add(list, BorderLayout.NORTH);
+        JScrollPane scroll = new JScrollPane(listHolder);
+        scroll.getVerticalScrollBar().setUnitIncrement(16);
+        scroll.setPreferredSize(new Dimension(460, 400));
+        content.add(scroll, BorderLayout.CENTER);
+
+        statusLabel.setForeground(Theme.SECONDARY);
+        content.add(statusLabel, BorderLayout.SOUTH);
+        setContentPane(content);
+
+        debounce = new Timer(DEBOUNCE_MS, e -> runSearch());
+        debounce.setRepeats(false);
+        queryField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { debounce.restart(); }
+            public void removeUpdate(DocumentEvent e) { debounce.restart(); }
+            public void changedUpdate(DocumentEvent e) { debounce.restart(); }
+        });
+
+        bindKey("DOWN", () -> select(Math.min(selected + 1, results.size() - 1)));
+        bindKey("UP", () -> select(Math.min(Math.max(selected - 1, 0), results.size() - 1)));
+        bindKey("ENTER", this::pickSelected);
+        bindKey("ESCAPE", this::dispose);
+
+        pack();
+        setLocationRelativeTo(owner);
+    }
+
+    /**
+     * Shows the dialog and returns the picked show, or null if it was
+     * cancelled. search runs a title query off the EDT; details gives the
+     * second line of a result (e.g. "24 episodes").
+     */
+    public static <T extends Show> T pick(Component owner, String title,
+                                          Function<String, CompletableFuture<List<T>>> search,
+                                          Function<T, String> details) {
+        Window window = owner instanceof Window ? (Window) owner : SwingUtilities.getWindowAncestor(owner);
+        TitleSearchDialog<T> dialog = new TitleSearchDialog<>(window, title, search, details);
+        dialog.setVisible(true);
+        return dialog.chosen;
+    }
+
+    private void bindKey(String key, Runnable action) {
+        String name = "titleSearch." + key;
+        queryField.getInputMap(JComponent.WHEN_FOCUSED).put(KeyStroke.getKeyStroke(key), name);
+        queryField.getActionMap().put(name, new AbstractAction() {
+            public void actionPerformed(ActionEvent e) { action.run(); }
+        });
+    }
+
+    private void runSearch() {
+        String query = queryField.getText();
+        int seq = ++searchSeq;
+        if (query.trim().isEmpty()) {
+            showResults(Collections.emptyList(), "Type to search");
+            return;
+        }
+        statusLabel.setText("Searching...");
+        SwingAsync.run(this, search.apply(query), found -> {
+            if (seq != searchSeq || !isDisplayable()) return;
+            showResults(found, found.isEmpty() ? "No matches" : null);
+        }, e -> {
+            if (seq == searchSeq) statusLabel.setText("Search failed: " + e.getMessage());
+        });
+    }
+
+    private void showResults(List<T> found, String message) {
+        results = found.size() > MAX_RESULTS ? found.subList(0, MAX_RESULTS) : found;
+        for (int i = 0; i < rows.size(); i++) {
+            ResultRow row = rows.get(i);
+            if (i < results.size()) {
+                row.bind(results.get(i));
+                row.setVisible(true);
+            } else {
+                row.setVisible(false);
+            }
+        }
+        statusLabel.setText(message != null ? message
+            : results.size() + (results.size() == MAX_RESULTS ? "+ matches (keep typing to narrow)" : " matches"));
+        select(results.isEmpty() ? -1 : 0);
+    }
+
+    private void select(int index) {
+        if (selected >= 0 && selected < rows.size()) rows.get(selected).setSelected(false);
+        selected = index;
+        if (index >= 0) {
+            ResultRow row = rows.get(index);
+            row.setSelected(true);
+            row.scrollRectToVisible(new Rectangle(0, 0, row.getWidth(), row.getHeight()));
+        }
+    }
+
+    private void pickSelected() {
+        if (selected < 0 || selected >= results.size()) return;
+        chosen = results.get(selected);
+        dispose();
+    }
+
+    @Override
+    public void dispose() {
+        debounce.stop();
+        super.dispose();
+    }
+
+    // One result line: thumbnail, title and details
+    private class ResultRow extends JPanel {
+        private final JLabel thumb = new JLabel();
+        private final JLabel titleLabel = new JLabel();
+        private final JLabel detailsLabel = new JLabel();
+
+        ResultRow(int index) {
+            super(new BorderLayout(8, 0));
+            setBorder(BorderFactory.createEmptyBorder(4, 6, 4, 6));
+            setBackground(Color.WHITE);
+            setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+            thumb.setPreferredSize(new Dimension(THUMB_WIDTH, THUMB_HEIGHT));
+            add(thumb, BorderLayout.WEST);
+
+            JPanel text = new JPanel(new GridLayout(2, 1));
+            text.setOpaque(false);
+            titleLabel.setFont(new Font("Arial", Font.BOLD, 14));
+            titleLabel.setForeground(Theme.SECONDARY);
+            detailsLabel.setFont(new Font("Arial", Font.PLAIN, 12));
+            detailsLabel.setForeground(Theme.SECONDARY);
+            text.add(titleLabel);
+            text.add(detailsLabel);
+            add(text, BorderLayout.CENTER);
+
+            setMaximumSize(new Dimension(Integer.MAX_VALUE, THUMB_HEIGHT + 8));
+            addMouseListener(new MouseAdapter() {
+                public void mouseClicked(MouseEvent e) {
+                    select(index);
+                    if (e.getClickCount() == 2) pickSelected();
+                }
+            });
+        }
+
+        void bind(T show) {
+            titleLabel.setText(show.getTitle());
+            detailsLabel.setText(details.apply(show));
+            ImageLoader.loadImageAsync(show.getImageUrl(), THUMB_WIDTH, THUMB_HEIGHT, thumb);
+        }
+
+        void setSelected(boolean isSelected) {
+            setBackground(isSelected ? Theme.BACKGROUND : Color.WHITE);
+        }
+    }
+}
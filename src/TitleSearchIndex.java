@@ -0,0 +1,252 @@
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Search over catalog titles, built once per catalog load.
+ *
+ * Titles are normalized (lower case, accents stripped, punctuation folded to
+ * single spaces), so "Shingeki no Kyojin", "shingeki-no-kyojin" and the
+ * same title with accented vowels all match each other.
+ *
+ * Three structures answer a query, in rank order:
+ * - the titles sorted alphabetically, used like a prefix trie: one binary
+ *   search finds the run of titles starting with the query (an exact match
+ *   sorts first);
+ * - every later word start in every title, sorted the same way, for titles
+ *   with a word beginning with the query;
+ * - a trigram index (three-character substring -> titles containing it) for
+ *   matches in the middle of a word.
+ * Each stage stops as soon as the result is full, so a search costs a couple
+ * of binary searches plus about `limit` string comparisons, whatever the
+ * catalog size. Within a stage results are alphabetical (substring matches are
+ * in catalog order).
+ */
+public class TitleSearchIndex<T extends Show> {
+    private final List<T> shows;
+    private final String[] titles;
+    // (doc << 16 | offset) for each title start, and for every other word start,
+    // each sorted by the title text from that offset
+    private final long[] titleStarts;
+    private final long[] wordStarts;
+    // trigram (three chars packed into a long) -> ascending doc numbers
+    private final Map<Long, int[]> trigrams;
+
+    public TitleSearchIndex(List<T> shows) {
+        this.shows = shows;
+        this.titles = new String[shows.size()];
+        int starts = 0;
+        for (int doc = 0; doc < titles.length; doc++) {
+            String title = normalize(shows.get(doc).getTitle());
+            // offsets are stored in 16 bits
+            titles[doc] = title.length() > 0xFFFF ? title.substring(0, 0xFFFF) : title;
+            starts += countWordStarts(titles[doc]);
+        }
+
+        titleStarts = new long[titles.length];
+        wordStarts = new long[starts - titles.length];
+        int n = 0;
+        for (int doc = 0; doc < titles.length; doc++) {
+            String title = titles[doc];
+            titleStarts[doc] = (long) doc << 16;
+            for (int i = 1; i < title.length(); i++) {
+                if (title.charAt(i - 1) == ' ') wordStarts[n++] = ((long) doc << 16) | i;
+            }
+        }
+        sortStarts(titleStarts, new long[titleStarts.length], 0, titleStarts.length);
+        sortStarts(wordStarts, new long[wordStarts.length], 0, wordStarts.length);
+
+        trigrams = buildTrigrams(titles);
+    }
+
+    public int size() {
+        return titles.length;
+    }
+
+    /**
+     * Returns up to limit shows matching query, best first. An empty query
+     * matches nothing.
+     */
+    public List<T> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0 || titles.length == 0) return Collections.emptyList();
+
+        // limit comes from the caller; there are never more hits than titles
+        Hits hits = new Hits(Math.min(limit, titles.length));
+        collectPrefixMatches(titleStarts, q, hits);
+        if (!hits.full()) collectPrefixMatches(wordStarts, q, hits);
+        if (!hits.full() && q.length() >= 3) collectSubstringMatches(q, hits);
+
+        List<T> result = new ArrayList<>(hits.size);
+        for (int i = 0; i < hits.size; i++) result.add(shows.get(hits.docs[i]));
+        return result;
+    }
+
+    private void collectPrefixMatches(long[] starts, String q, Hits hits) {
+        int lo = 0, hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareSuffix(starts[mid], q) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        for (int i = lo; i < starts.length && !hits.full(); i++) {
+            int doc = (int) (starts[i] >>> 16);
+            int offset = (int) (starts[i] & 0xFFFF);
+            if (!titles[doc].startsWith(q, offset)) break;
+            hits.add(doc);
+        }
+    }
+
+    private void collectSubstringMatches(String q, Hits hits) {
+        // intersect the posting lists of the query's trigrams, shortest first
+        int grams = q.length() - 2;
+        int[][] lists = new int[grams][];
+        for (int i = 0; i < grams; i++) {
+            int[] postings = trigrams.get(trigram(q, i));
+            if (postings == null) return;
+            lists[i] = postings;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(l -> l.length));
+
+        outer:
+        for (int doc : lists[0]) {
+            for (int l = 1; l < lists.length; l++) {
+                if (Arrays.binarySearch(lists[l], doc) < 0) continue outer;
+            }
+            // the trigrams can all be present without being adjacent
+            if (titles[doc].indexOf(q) < 0) continue;
+            hits.add(doc);
+            if (hits.full()) return;
+        }
+    }
+
+    // Compares the title text starting at a word start with q, as if the title were cut to q's length
+    private int compareSuffix(long start, String q) {
+        String title = titles[(int) (start >>> 16)];
+        int offset = (int) (start & 0xFFFF);
+        int n = Math.min(title.length() - offset, q.length());
+        for (int i = 0; i < n; i++) {
+            int c = title.charAt(offset + i) - q.charAt(i);
+            if (c != 0) return c;
+        }
+        return title.length() - offset < q.length() ? -1 : 0;
+    }
+
+    // Orders starts by the title text from their offset, then by doc (catalog order)
+    private int compareStarts(long a, long b) {
+        String ta = titles[(int) (a >>> 16)];
+        String tb = titles[(int) (b >>> 16)];
+        int oa = (int) (a & 0xFFFF), ob = (int) (b & 0xFFFF);
+        int la = ta.length() - oa, lb = tb.length() - ob;
+        int n = Math.min(la, lb);
+        for (int i = 0; i < n; i++) {
+            int c = ta.charAt(oa + i) - tb.charAt(ob + i);
+            if (c != 0) return c;
+        }
+        if (la != lb) return la - lb;
+        return Long.compare(a, b);
+    }
+
+    // Merge sort on the primitive array, so building does not box every word start
+    private void sortStarts(long[] a, long[] tmp, int from, int to) {
+        if (to - from < 2) return;
+        int mid = (from + to) >>> 1;
+        sortStarts(a, tmp, from, mid);
+        sortStarts(a, tmp, mid, to);
+        if (compareStarts(a[mid - 1], a[mid]) <= 0) return;
+        System.arraycopy(a, from, tmp, from, to - from);
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) a[k++] = compareStarts(tmp[i], tmp[j]) <= 0 ? tmp[i++] : tmp[j++];
+        while (i < mid) a[k++] = tmp[i++];
+        while (j < to) a[k++] = tmp[j++];
+    }
+
+    private static Map<Long, int[]> buildTrigrams(String[] titles) {
+        Map<Long, Postings> building = new HashMap<>();
+        for (int doc = 0; doc < titles.length; doc++) {
+            String title = titles[doc];
+            for (int i = 0; i + 3 <= title.length(); i++) {
+                building.computeIfAbsent(trigram(title, i), k -> new Postings()).add(doc);
+            }
+        }
+        Map<Long, int[]> lists = new HashMap<>(building.size() * 2);
+        for (Map.Entry<Long, Postings> e : building.entrySet()) {
+            lists.put(e.getKey(), Arrays.copyOf(e.getValue().docs, e.getValue().size));
+        }
+        return lists;
+    }
+
+    // A growing, ascending doc list used while building
+    private static class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            // docs arrive in order, so a trigram repeated within a title is the last entry
+            if (size > 0 && docs[size - 1] == doc) return;
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            docs[size++] = doc;
+        }
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    // Every title counts one start, even an empty one
+    private static int countWordStarts(String title) {
+        int count = 1;
+        for (int i = 0; i < title.length(); i++) {
+            if (i > 0 && title.charAt(i - 1) == ' ') count++;
+        }
+        return count;
+    }
+
+    /**
+     * Folds a title or query for matching: lower case, accents removed, and
+     * every run of punctuation or whitespace turned into one space.
+     */
+    public static String normalize(String s) {
+        if (s == null) return "";
+        // only decompose when there is something to strip
+        boolean ascii = true;
+        for (int i = 0; i < s.length() && ascii; i++) ascii = s.charAt(i) < 0x80;
+        if (!ascii) s = Normalizer.normalize(s, Normalizer.Form.NFD);
+
+        StringBuilder sb = new StringBuilder(s.length());
+        boolean space = true; // drops leading separators
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int len = sb.length();
+        if (len > 0 && sb.charAt(len - 1) == ' ') sb.setLength(len - 1);
+        return sb.toString();
+    }
+
+    // Docs found so far, in rank order, each at most once
+    private static class Hits {
+        final int[] docs;
+        int size;
+
+        Hits(int limit) {
+            docs = new int[limit];
+        }
+
+        boolean full() {
+            return size == docs.length;
+        }
+
+        void add(int doc) {
+            // limit is small, so a scan beats a set
+            for (int i = 0; i < size; i++) if (docs[i] == doc) return;
+            docs[size++] = doc;
+        }
+    }
+}
@@ -1,13 +1,63 @@
 import java.io.*;
 import java.util.*;
 
-public class TrackerAPI {
-    private static final String ANIME_FILE = "anime_database.txt";
-    private static final String MANGA_FILE = "manga_database.txt";
-    private static final String USERS_DIR = "users/";
-    
+public class TrackerAPI implements Closeable {
+    // Data files, relative to the data directory
+    private final String animeFile;
+    private final String mangaFile;
+    private final String usersDir;
+
+    private final CatalogIndex<Anime> animeCatalog;
+    private final CatalogIndex<Manga> mangaCatalog;
+    // Per-user lists, loaded once and kept in sync with users/<name>.txt
+    private final Map<String, UserList> userLists = new java.util.concurrent.ConcurrentHashMap<>();
+    // Journaled mode (-Dtracker.journal=true) appends changes instead of rewriting the user file
+    private final UserListStore userStore;
+    // Entry edits are saved after writeDelayMs of quiet (0 writes immediately)
+    private final WriteCoalescer pendingWrites;
+
+    // Latency of each call, with -Dtracker.metrics=true (see Metrics)
+    private static final Metrics.Timer ADD_ANIME = Metrics.timer("TrackerAPI.addAnime");
+    private static final Metrics.Timer GET_ALL_ANIME = Metrics.timer("TrackerAPI.getAllAnime");
+    private static final Metrics.Timer FIND_ANIME = Metrics.timer("TrackerAPI.findAnimeById");
+    private static final Metrics.Timer SEARCH_ANIME = Metrics.timer("TrackerAPI.searchAnime");
+    private static final Metrics.Timer ADD_MANGA = Metrics.timer("TrackerAPI.addManga");
+    private static final Metrics.Timer GET_ALL_MANGA = Metrics.timer("TrackerAPI.getAllManga");
+    private static final Metrics.Timer FIND_MANGA = Metrics.timer("TrackerAPI.findMangaById");
+    private static final Metrics.Timer SEARCH_MANGA = Metrics.timer("TrackerAPI.searchManga");
+    private static final Metrics.Timer OPEN_USER = Metrics.timer("TrackerAPI.openUser");
+    private static final Metrics.Timer FLUSH = Metrics.timer("TrackerAPI.flushPendingWrites");
+    private static final Metrics.Timer ADD_ENTRY = Metrics.timer("TrackerAPI.addToUserList");
+    private static final Metrics.Timer UPDATE_ENTRY = Metrics.timer("TrackerAPI.updateUserEntry");
+    private static final Metrics.Timer GET_ENTRY = Metrics.timer("TrackerAPI.getUserShowEntry");
+    private static final Metrics.Timer GET_USER_ANIME = Metrics.timer("TrackerAPI.getUserAnime");
+    private static final Metrics.Timer GET_USER_MANGA = Metrics.timer("TrackerAPI.getUserManga");
+    private static final Metrics.Timer REPAIR = Metrics.timer("TrackerAPI.repairUserIds");
+    private static final Metrics.Timer REMOVE_ENTRY = Metrics.timer("TrackerAPI.removeFromUserList");
+
+    // Uses the data files in -Dtracker.dataDir (default: the working directory).
     public TrackerAPI() {
-        new File(USERS_DIR).mkdirs();
+        this(System.getProperty("tracker.dataDir", ""));
+    }
+
+    // Uses anime_database.txt, manga_database.txt and users/ in dataDir ("" is the working directory).
+    public TrackerAPI(String dataDir) {
+        this(dataDir, Long.getLong("tracker.writeDelayMs", 500));
+    }
+
+    // As TrackerAPI(dataDir), saving entry edits after writeDelayMs of quiet instead of -Dtracker.writeDelayMs.
+    public TrackerAPI(String dataDir, long writeDelayMs) {
+        String prefix = dataDir.isEmpty() || dataDir.endsWith("/") ? dataDir : dataDir + "/";
+        animeFile = prefix + "anime_database.txt";
+        mangaFile = prefix + "manga_database.txt";
+        usersDir = prefix + "users/";
+        animeCatalog = new CatalogIndex<>(animeFile, Anime::fromRecord, Anime::new);
+        mangaCatalog = new CatalogIndex<>(mangaFile, Manga::fromRecord, Manga::new);
+        userStore = new UserListStore(usersDir,
+            Boolean.getBoolean("tracker.journal"), Long.getLong("tracker.journal.compactBytes", 64 * 1024),
+            new AtomicFileWriter(AtomicFileWriter.policyFromProperty("tracker.fsync"), Integer.getInteger("tracker.fsync.batch", 32)));
+        pendingWrites = new WriteCoalescer(writeDelayMs);
+        new File(usersDir).mkdirs();
     }
 
     // Return a new unique Anime ID (UUID-based)
@@ -21,51 +71,102 @@ public class TrackerAPI {
     
     // Anime database methods
     public void addAnime(Anime anime) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(ANIME_FILE, true))) {
+        long start = Metrics.start();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(animeFile, true))) {
             writer.write(anime.toFileString());
             writer.newLine();
+        } finally {
+            animeCatalog.invalidate();
+            ADD_ANIME.stop(start);
         }
     }
     
+    // Returns the cached catalog (read-only); the file is only re-parsed when it changes.
     public List<Anime> getAllAnime() {
-        List<Anime> animeList = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(ANIME_FILE))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                animeList.add(Anime.fromFileString(line));
-            }
-        } catch (IOException e) {
-            // File doesn't exist yet
+        long start = Metrics.start();
+        try {
+            return animeCatalog.getAll();
+        } finally {
+            GET_ALL_ANIME.stop(start);
+        }
+    }
+
+    public int countAnime() {
+        return animeCatalog.size();
+    }
+
+    public Anime findAnimeById(String id) {
+        long start = Metrics.start();
+        try {
+            return animeCatalog.findById(id);
+        } finally {
+            FIND_ANIME.stop(start);
+        }
+    }
+
+    // Title search ignoring case, accents and punctuation; best matches first.
+    public List<Anime> searchAnime(String query, int limit) {
+        long start = Metrics.start();
+        try {
+            return animeCatalog.search(query, limit);
+        } finally {
+            SEARCH_ANIME.stop(start);
         }
-        return animeList;
     }
     
     // Manga database methods
     public void addManga(Manga manga) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(MANGA_FILE, true))) {
+        long start = Metrics.start();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(mangaFile, true))) {
             writer.write(manga.toFileString());
             writer.newLine();
+        } finally {
+            mangaCatalog.invalidate();
+            ADD_MANGA.stop(start);
         }
     }
     
+    // Returns the cached catalog (read-only); the file is only re-parsed when it changes.
     public List<Manga> getAllManga() {
-        List<Manga> mangaList = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(MANGA_FILE))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                mangaList.add(Manga.fromFileString(line));
-            }
-        } catch (IOException e) {
-            // File doesn't exist yet
+        long start = Metrics.start();
+        try {
+            return mangaCatalog.getAll();
+        } finally {
+            GET_ALL_MANGA.stop(start);
+        }
+    }
+
+    public int countManga() {
+        return mangaCatalog.size();
+    }
+
+    public Manga findMangaById(String id) {
+        long start = Metrics.start();
+        try {
+            return mangaCatalog.findById(id);
+        } finally {
+            FIND_MANGA.stop(start);
+        }
+    }
+
+    // Title search ignoring case, accents and punctuation; best matches first.
+    public List<Manga> searchManga(String query, int limit) {
+        long start = Metrics.start();
+        try {
+            return mangaCatalog.search(query, limit);
+        } finally {
+            SEARCH_MANGA.stop(start);
         }
-        return mangaList;
     }
     
+    // Durability of user file writes; switch to BATCHED or NEVER around bulk imports.
+    public void setFsyncPolicy(AtomicFileWriter.FsyncPolicy policy) {
+        userStore.getFileWriter().setPolicy(policy);
+    }
+
     // User methods
     public boolean createUser(String username) {
-        File userFile = new File(USERS_DIR + username + ".txt");
+        File userFile = new File(usersDir + username + ".txt");
         if (userFile.exists()) {
             return false;
         }
@@ -78,9 +179,77 @@ public class TrackerAPI {
     }
     
     public boolean userExists(String username) {
-        return new File(USERS_DIR + username + ".txt").exists();
+        return new File(usersDir + username + ".txt").exists();
     }
-    
+
+    /**
+     * Loads the user's list into memory (called at login). All later reads for
+     * this user are served from memory and every change is written through to disk.
+     */
+    public void openUser(String username) {
+        long start = Metrics.start();
+        try {
+            pendingWrites.flush(username);
+            userLists.remove(username);
+            getUserList(username);
+            if (!isClean(username)) {
+                UserIdRepair.Report report = repairUserIds(username);
+                if (report.changed()) System.err.println("Repaired user list: " + report);
+            }
+        } finally {
+            OPEN_USER.stop(start);
+        }
+    }
+
+    // Saves any pending edits and drops the in-memory list (called at logout).
+    public void closeUser(String username) {
+        if (username == null) return;
+        pendingWrites.flush(username);
+        userLists.remove(username);
+    }
+
+    // Saves every pending entry edit now (window close).
+    public void flushPendingWrites() {
+        long start = Metrics.start();
+        try {
+            pendingWrites.flushAll();
+        } finally {
+            FLUSH.stop(start);
+        }
+    }
+
+    // Saves every pending entry edit and stops the background writer; the API is not usable afterwards.
+    @Override
+    public void close() {
+        pendingWrites.close();
+    }
+
+    // Returns the cached list for the user, loading it on first use; null if the user has no file.
+    private UserList getUserList(String username) {
+        UserList cached = userLists.get(username);
+        if (cached != null) return cached;
+
+        UserList list;
+        try {
+            list = userStore.load(username);
+        } catch (IOException e) {
+            return null;
+        }
+        if (list == null) return null;
+        UserList existing = userLists.putIfAbsent(username, list);
+        return existing != null ? existing : list;
+    }
+
+    private void writeUserList(String username, UserList list) throws IOException {
+        try {
+            userStore.rewrite(username, list);
+        } catch (IOException e) {
+            // the file no longer matches memory; reload it on next access
+            userLists.remove(username);
+            throw e;
+        }
+    }
+
     /**
      * Adds an entry to the user's file.
      * Returns true if added, false if a duplicate was detected.
@@ -90,271 +259,293 @@ public class TrackerAPI {
     }
 
     public boolean addToUserList(String username, String showId, String status, String type, int progress, int rating) throws IOException {
-        File userFile = new File(USERS_DIR + username + ".txt");
-        // ensure file exists
-        if (!userFile.exists()) userFile.createNewFile();
-        // check duplicates
-        try (BufferedReader reader = new BufferedReader(new FileReader(userFile))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 2 && parts[0].equals(type) && parts[1].equals(showId)) {
+        long start = Metrics.start();
+        try {
+            File userFile = new File(usersDir + username + ".txt");
+            // ensure file exists
+            if (!userFile.exists()) userFile.createNewFile();
+            UserList list = getUserList(username);
+            if (list == null) throw new IOException("Could not read " + userFile);
+            checkEntry(type, status, rating);
+
+            synchronized (list) {
+                if (list.contains(type, showId)) {
                     return false; // duplicate
                 }
+                UserShowEntry entry = new UserShowEntry(status, progress, rating);
+                entry.setType(type);
+                entry.setShowId(showId);
+                // append (include rating), then record it in memory once it is on disk
+                userStore.add(username, entry);
+                list.add(entry);
             }
+            return true;
+        } finally {
+            ADD_ENTRY.stop(start);
         }
-        // append (include rating)
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(userFile, true))) {
-            writer.write(type + "|" + showId + "|" + status + "|" + progress + "|" + rating);
-            writer.newLine();
-        }
-        return true;
     }
     
     public void updateUserEntry(String username, String showId, String type, String newStatus, int newProgress) throws IOException {
         updateUserEntry(username, showId, type, newStatus, newProgress, -1);
     }
 
+    /**
+     * Changes an entry. The in-memory list is updated at once; the write to disk
+     * is deferred by tracker.writeDelayMs so a burst of edits to the same entry
+     * is saved once. Pending edits are flushed at logout and on exit.
+     */
     public void updateUserEntry(String username, String showId, String type, String newStatus, int newProgress, int newRating) throws IOException {
-        File userFile = new File(USERS_DIR + username + ".txt");
-        List<String> lines = new ArrayList<>();
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(userFile))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts[0].equals(type) && parts[1].equals(showId)) {
-                    lines.add(type + "|" + showId + "|" + newStatus + "|" + newProgress + "|" + newRating);
-                } else {
-                    lines.add(line);
+        long start = Metrics.start();
+        try {
+            UserList list = getUserList(username);
+            if (list == null) throw new FileNotFoundException(usersDir + username + ".txt");
+            checkEntry(type, newStatus, newRating);
+
+            synchronized (list) {
+                UserShowEntry entry = list.get(type, showId);
+                if (entry == null) return;
+                entry.setStatus(newStatus);
+                entry.setProgress(newProgress);
+                entry.setRating(newRating);
+                list.put(entry);
+                if (pendingWrites.getDelayMs() <= 0) {
+                    try {
+                        userStore.update(username, list, entry);
+                    } catch (IOException e) {
+                        userLists.remove(username);
+                        throw e;
+                    }
+                    return;
                 }
             }
+            // A failed deferred write is retried; memory stays the source of truth meanwhile
+            pendingWrites.schedule(username, UserList.key(type, showId) + "|" + username,
+                () -> saveEntry(username, list, type, showId));
+        } finally {
+            UPDATE_ENTRY.stop(start);
         }
-        
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(userFile))) {
-            for (String line : lines) {
-                writer.write(line);
-                writer.newLine();
-            }
+    }
+
+    // Writes the entry's current state; nothing if it has since been removed (that write covers it).
+    private void saveEntry(String username, UserList list, String type, String showId) throws IOException {
+        synchronized (list) {
+            UserShowEntry entry = list.get(type, showId);
+            if (entry != null) userStore.update(username, list, entry);
         }
     }
     
+    // The list stores statuses and types as enums, so anything else is rejected before it is written
+    private static void checkEntry(String type, String status, int rating) {
+        if (ShowType.of(type) == null) throw new IllegalArgumentException("Unknown type: " + type);
+        if (EntryStatus.of(status) == null) throw new IllegalArgumentException("Unknown status: " + status);
+        if (!UserList.isValidRating(rating)) throw new IllegalArgumentException("Rating must be 0-10 (or -1 for none): " + rating);
+    }
+
+    // Returns a copy of the entry, or null if the show is not on the list.
     public UserShowEntry getUserShowEntry(String username, String showId, String type) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(USERS_DIR + username + ".txt"))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts[0].equals(type) && parts[1].equals(showId)) {
-                    int prog = Integer.parseInt(parts[3]);
-                    int rating = -1;
-                    if (parts.length >= 5) {
-                        try { rating = Integer.parseInt(parts[4]); } catch (NumberFormatException nf) { rating = -1; }
-                    }
-                    UserShowEntry e = new UserShowEntry(parts[2], prog, rating);
-                    e.setShowId(parts[1]);
-                    return e;
-                }
+        long start = Metrics.start();
+        try {
+            UserList list = getUserList(username);
+            if (list == null) return null;
+            synchronized (list) {
+                return list.get(type, showId);
             }
-        } catch (IOException e) {
-            // File doesn't exist yet
+        } finally {
+            GET_ENTRY.stop(start);
         }
-        return null;
     }
-    
+
+    // The user's anime keyed by status label ("Watching", "Completed", ...)
     public Map<String, List<UserShowEntry>> getUserAnime(String username) {
-        Map<String, List<UserShowEntry>> animeByStatus = new HashMap<>();
-        animeByStatus.put("Watching", new ArrayList<>());
-        animeByStatus.put("Completed", new ArrayList<>());
-        animeByStatus.put("Plan to Watch", new ArrayList<>());
-        animeByStatus.put("Dropped", new ArrayList<>());
-        // Read all lines first so we can attempt to correct malformed showIds (e.g., title instead of ID)
-        File userFile = new File(USERS_DIR + username + ".txt");
-        if (!userFile.exists()) return animeByStatus;
-
-        List<String> lines = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(userFile))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!line.trim().isEmpty()) lines.add(line);
-            }
-        } catch (IOException e) {
-            return animeByStatus;
-        }
+        return byLabel(getUserAnimeByStatus(username));
+    }
 
-        List<String> outLines = new ArrayList<>();
-        boolean changed = false;
-        List<Anime> allAnime = getAllAnime();
-
-        for (String line : lines) {
-            String[] parts = line.split("\\|");
-            if (parts.length >= 4 && "ANIME".equals(parts[0])) {
-                String storedId = parts[1];
-                String status = parts[2];
-                int prog = 0;
-                try { prog = Integer.parseInt(parts[3]); } catch (NumberFormatException nf) { prog = 0; }
-                int rating = -1;
-                if (parts.length >= 5) {
-                    try { rating = Integer.parseInt(parts[4]); } catch (NumberFormatException nf) { rating = -1; }
-                }
+    public Map<String, List<UserShowEntry>> getUserManga(String username) {
+        return byLabel(getUserMangaByStatus(username));
+    }
 
-                // If storedId doesn't match any anime ID, try to resolve by title
-                boolean idMatches = false;
-                for (Anime a : allAnime) {
-                    if (a.getId().equals(storedId)) { idMatches = true; break; }
-                }
+    // As getUserAnime, keyed by EntryStatus (in tab order)
+    public Map<EntryStatus, List<UserShowEntry>> getUserAnimeByStatus(String username) {
+        long start = Metrics.start();
+        try {
+            return groupUserList(username, ShowType.ANIME);
+        } finally {
+            GET_USER_ANIME.stop(start);
+        }
+    }
 
-                String resolvedId = storedId;
-                if (!idMatches) {
-                    String candidate = storedId.trim();
-                    for (Anime a : allAnime) {
-                        String t = a.getTitle() == null ? "" : a.getTitle().trim();
-                        if (t.equalsIgnoreCase(candidate) || t.equalsIgnoreCase("The " + candidate) || t.toLowerCase().contains(candidate.toLowerCase())) {
-                            resolvedId = a.getId();
-                            idMatches = true;
-                            break;
-                        }
-                    }
-                }
+    public Map<EntryStatus, List<UserShowEntry>> getUserMangaByStatus(String username) {
+        long start = Metrics.start();
+        try {
+            return groupUserList(username, ShowType.MANGA);
+        } finally {
+            GET_USER_MANGA.stop(start);
+        }
+    }
 
-                UserShowEntry entry = new UserShowEntry(status, prog, rating);
-                entry.setShowId(resolvedId);
-                List<UserShowEntry> list = animeByStatus.get(status);
-                if (list != null) list.add(entry);
-
-                if (!resolvedId.equals(storedId)) {
-                    String newLine = String.join("|", "ANIME", resolvedId, status, String.valueOf(prog), String.valueOf(rating));
-                    outLines.add(newLine);
-                    changed = true;
-                } else {
-                    outLines.add(line);
-                }
-            } else {
-                outLines.add(line);
-            }
+    private static Map<String, List<UserShowEntry>> byLabel(Map<EntryStatus, List<UserShowEntry>> groups) {
+        Map<String, List<UserShowEntry>> result = new HashMap<>();
+        for (Map.Entry<EntryStatus, List<UserShowEntry>> e : groups.entrySet()) {
+            result.put(e.getKey().getLabel(), e.getValue());
         }
+        return result;
+    }
 
-        if (changed) {
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(userFile))) {
-                for (String ol : outLines) {
-                    writer.write(ol);
-                    writer.newLine();
-                }
-            } catch (IOException e) {
-                // ignore write failures for now
+    // Copies of the user's entries of one type, grouped by the statuses that type uses
+    private Map<EntryStatus, List<UserShowEntry>> groupUserList(String username, ShowType type) {
+        EnumMap<EntryStatus, List<UserShowEntry>> groups;
+        UserList list = getUserList(username);
+        if (list == null) {
+            groups = new EnumMap<>(EntryStatus.class);
+        } else {
+            // IDs were repaired once at login (see repairUserIds), so this is a plain grouping
+            synchronized (list) {
+                groups = list.groupByStatus(type);
             }
         }
-
-        return animeByStatus;
+        // only the type's own statuses, as before (an anime marked Reading is not shown)
+        EnumMap<EntryStatus, List<UserShowEntry>> result = new EnumMap<>(EntryStatus.class);
+        for (EntryStatus status : type.getStatuses()) {
+            List<UserShowEntry> entries = groups.get(status);
+            result.put(status, entries != null ? entries : new ArrayList<>());
+        }
+        return result;
     }
     
-    public Map<String, List<UserShowEntry>> getUserManga(String username) {
-        Map<String, List<UserShowEntry>> mangaByStatus = new HashMap<>();
-        mangaByStatus.put("Reading", new ArrayList<>());
-        mangaByStatus.put("Completed", new ArrayList<>());
-        mangaByStatus.put("Plan to Read", new ArrayList<>());
-        mangaByStatus.put("Dropped", new ArrayList<>());
-        // Read all lines first so we can attempt to correct malformed showIds (e.g., title instead of ID)
-        File userFile = new File(USERS_DIR + username + ".txt");
-        if (!userFile.exists()) return mangaByStatus;
-
-        List<String> lines = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(userFile))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!line.trim().isEmpty()) lines.add(line);
-            }
-        } catch (IOException e) {
-            return mangaByStatus;
+    /**
+     * Re-keys entries whose SHOW_ID is not a catalog ID (e.g. a title from an
+     * older file) to the matching show, writes the list if anything changed,
+     * and marks the user clean so it is not checked again at login (unless some
+     * entries could not be matched).
+     */
+    public UserIdRepair.Report repairUserIds(String username) {
+        return repairUserIds(username, animeResolver(), mangaResolver());
+    }
+
+    /**
+     * Repairs every user in users/; with force false, users already marked
+     * clean are skipped.
+     */
+    public List<UserIdRepair.Report> repairAllUsers(boolean force) {
+        List<UserIdRepair.Report> reports = new ArrayList<>();
+        File[] files = new File(usersDir).listFiles((d, name) -> name.endsWith(".txt"));
+        if (files == null) return reports;
+        Arrays.sort(files);
+        // the catalog lookups are built once for the whole batch
+        UserIdRepair.Resolver<Anime> anime = animeResolver();
+        UserIdRepair.Resolver<Manga> manga = mangaResolver();
+        for (File f : files) {
+            String username = f.getName().substring(0, f.getName().length() - ".txt".length());
+            if (!force && isClean(username)) continue;
+            reports.add(repairUserIds(username, anime, manga));
         }
+        return reports;
+    }
 
-        List<String> outLines = new ArrayList<>();
-        boolean changed = false;
-        List<Manga> allManga = getAllManga();
-
-        for (String line : lines) {
-            String[] parts = line.split("\\|");
-            if (parts.length >= 4 && "MANGA".equals(parts[0])) {
-                String storedId = parts[1];
-                String status = parts[2];
-                int prog = 0;
-                try { prog = Integer.parseInt(parts[3]); } catch (NumberFormatException nf) { prog = 0; }
-                int rating = -1;
-                if (parts.length >= 5) {
-                    try { rating = Integer.parseInt(parts[4]); } catch (NumberFormatException nf) { rating = -1; }
-                }
+    private UserIdRepair.Resolver<Anime> animeResolver() {
+        return new UserIdRepair.Resolver<>(getAllAnime(), this::searchAnime);
+    }
 
-                // If storedId doesn't match any manga ID, try to resolve by title
-                boolean idMatches = false;
-                for (Manga m : allManga) {
-                    if (m.getId().equals(storedId)) { idMatches = true; break; }
-                }
+    private UserIdRepair.Resolver<Manga> mangaResolver() {
+        return new UserIdRepair.Resolver<>(getAllManga(), this::searchManga);
+    }
 
-                String resolvedId = storedId;
-                if (!idMatches) {
-                    String candidate = storedId.trim();
-                    // Try matching by title (exact, case-insensitive, or contains)
-                    for (Manga m : allManga) {
-                        String t = m.getTitle() == null ? "" : m.getTitle().trim();
-                        if (t.equalsIgnoreCase(candidate) || t.equalsIgnoreCase("The " + candidate) || t.toLowerCase().contains(candidate.toLowerCase())) {
-                            resolvedId = m.getId();
-                            idMatches = true;
-                            break;
-                        }
-                    }
-                }
+    private UserIdRepair.Report repairUserIds(String username, UserIdRepair.Resolver<Anime> anime, UserIdRepair.Resolver<Manga> manga) {
+        long start = Metrics.start();
+        TrackerEvents.IdRepair event = new TrackerEvents.IdRepair();
+        event.begin();
+        UserIdRepair.Report report = new UserIdRepair.Report(username);
+        try {
+            UserList list = getUserList(username);
+            if (list == null) return report;
 
-                // Build entry using resolvedId
-                UserShowEntry entry = new UserShowEntry(status, prog, rating);
-                entry.setShowId(resolvedId);
-                List<UserShowEntry> list = mangaByStatus.get(status);
-                if (list != null) list.add(entry);
-
-                // If we resolved to a different id, rewrite the line to persist fix
-                if (!resolvedId.equals(storedId)) {
-                    String newLine = String.join("|", "MANGA", resolvedId, status, String.valueOf(prog), String.valueOf(rating));
-                    outLines.add(newLine);
-                    changed = true;
-                } else {
-                    outLines.add(line);
+            pendingWrites.flush(username);
+            synchronized (list) {
+                for (UserShowEntry entry : list.getEntries("ANIME")) {
+                    repairEntry(list, entry, findAnimeById(entry.getShowId()) != null, anime, report);
                 }
-            } else {
-                outLines.add(line);
+                for (UserShowEntry entry : list.getEntries("MANGA")) {
+                    repairEntry(list, entry, findMangaById(entry.getShowId()) != null, manga, report);
+                }
+                try {
+                    if (report.changed()) {
+                        writeUserList(username, list);
+                        event.rewritten = true;
+                    }
+                    // unresolved entries stay as they are (the dashboard skips them) and are
+                    // looked at again next login, in case the show is added to the catalog
+                    if (report.unresolved.isEmpty()) markClean(username);
+                } catch (IOException e) {
+                    report.unresolved.add("(not saved: " + e.getMessage() + ")");
+                }
+            }
+            return report;
+        } finally {
+            REPAIR.stop(start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.user = username;
+                event.checked = report.checked;
+                event.fixed = report.fixed.size();
+                event.merged = report.merged.size();
+                event.unresolved = report.unresolved.size();
+                event.commit();
             }
         }
+    }
 
-        if (changed) {
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(userFile))) {
-                for (String ol : outLines) {
-                    writer.write(ol);
-                    writer.newLine();
-                }
-            } catch (IOException e) {
-                // ignore write failures for now
-            }
+    private static void repairEntry(UserList list, UserShowEntry entry, boolean known,
+                                    UserIdRepair.Resolver<? extends Show> resolver, UserIdRepair.Report report) {
+        report.checked++;
+        if (known) return;
+        String type = entry.getType();
+        String storedId = entry.getShowId();
+        Show show = resolver.resolve(storedId);
+        if (show == null) {
+            report.unresolved.add(type + " \"" + storedId + "\"");
+            return;
         }
+        String change = type + " \"" + storedId + "\" -> " + show.getId() + " (" + show.getTitle() + ")";
+        if (list.contains(type, show.getId())) {
+            // the list already has a proper entry for this show; drop the stale duplicate
+            list.remove(type, storedId);
+            report.merged.add(change);
+        } else {
+            list.replaceShowId(type, storedId, show.getId());
+            report.fixed.add(change);
+        }
+    }
 
-        return mangaByStatus;
+    private File cleanMarker(String username) {
+        return new File(usersDir + username + ".clean");
     }
-    
+
+    private boolean isClean(String username) {
+        return cleanMarker(username).exists();
+    }
+
+    private void markClean(String username) throws IOException {
+        File marker = cleanMarker(username);
+        if (!marker.exists()) marker.createNewFile();
+    }
+
     public void removeFromUserList(String username, String showId, String type) throws IOException {
-        File userFile = new File(USERS_DIR + username + ".txt");
-        List<String> lines = new ArrayList<>();
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(userFile))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (!(parts[0].equals(type) && parts[1].equals(showId))) {
-                    lines.add(line);
+        long start = Metrics.start();
+        try {
+            UserList list = getUserList(username);
+            if (list == null) throw new FileNotFoundException(usersDir + username + ".txt");
+
+            synchronized (list) {
+                if (list.remove(type, showId) == null) return;
+                try {
+                    userStore.remove(username, list, type, showId);
+                } catch (IOException e) {
+                    userLists.remove(username);
+                    throw e;
                 }
             }
-        }
-        
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(userFile))) {
-            for (String line : lines) {
-                writer.write(line);
-                writer.newLine();
-            }
+        } finally {
+            REMOVE_ENTRY.stop(start);
         }
     }
 }
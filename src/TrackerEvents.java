@@ -0,0 +1,195 @@
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder events for the storage, dashboard and cover code, so
+ * a recording shows which phase a slow action spent its time in:
+ *
+ *   jcmd <pid> JFR.start name=tracker settings=profile duration=60s filename=tracker.jfr
+ *
+ * and open tracker.jfr in JDK Mission Control (or "jfr print --events
+ * animetracker.* tracker.jfr"). The events are under the "Anime Tracker"
+ * category. When no recording is running they cost next to nothing; fields
+ * that take work to compute are only filled in when shouldCommit() is true.
+ *
+ * Usage, as for any JFR event:
+ *   TrackerEvents.CatalogLoad event = new TrackerEvents.CatalogLoad();
+ *   event.begin();
+ *   ...
+ *   if (event.shouldCommit()) { event.records = n; event.commit(); }
+ */
+public final class TrackerEvents {
+    private TrackerEvents() {
+    }
+
+    @Name("animetracker.CatalogLoad")
+    @Label("Catalog Load")
+    @Category({"Anime Tracker", "Storage"})
+    @Description("A catalog file parsed, or its binary copy mapped, after it changed")
+    public static class CatalogLoad extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Format")
+        @Description("text (parsed) or binary (memory-mapped)")
+        public String format;
+
+        @Label("Records")
+        public int records;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("animetracker.UserFileRead")
+    @Label("User File Read")
+    @Category({"Anime Tracker", "Storage"})
+    @Description("A user's list read from users/<name>.txt and its journal")
+    public static class UserFileRead extends Event {
+        @Label("User")
+        public String user;
+
+        @Label("Entries")
+        public int entries;
+
+        @Label("List Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Journal Bytes")
+        @DataAmount
+        public long journalBytes;
+    }
+
+    @Name("animetracker.FileWrite")
+    @Label("File Write")
+    @Category({"Anime Tracker", "Storage"})
+    @Description("A user file rewritten (temp file and rename) or appended to")
+    public static class FileWrite extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Mode")
+        @Description("rewrite or append")
+        public String mode;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Fsync")
+        public boolean fsync;
+    }
+
+    @Name("animetracker.IdRepair")
+    @Label("User ID Repair")
+    @Category({"Anime Tracker", "Storage"})
+    @Description("Entries stored by title re-keyed to catalog IDs at login")
+    public static class IdRepair extends Event {
+        @Label("User")
+        public String user;
+
+        @Label("Checked")
+        public int checked;
+
+        @Label("Fixed")
+        public int fixed;
+
+        @Label("Merged")
+        public int merged;
+
+        @Label("Unresolved")
+        public int unresolved;
+
+        @Label("Rewritten")
+        @Description("Whether the user file was rewritten")
+        public boolean rewritten;
+    }
+
+    @Name("animetracker.DashboardBuild")
+    @Label("Dashboard Build")
+    @Category({"Anime Tracker", "Dashboard"})
+    @Description("A user's entries joined with the catalog for the dashboard (off the UI thread)")
+    public static class DashboardBuild extends Event {
+        @Label("User")
+        public String user;
+
+        @Label("Items")
+        public int items;
+
+        @Label("Skipped")
+        @Description("Entries whose show is not in the catalog")
+        public int skipped;
+    }
+
+    @Name("animetracker.DashboardShow")
+    @Label("Dashboard Show")
+    @Category({"Anime Tracker", "Dashboard"})
+    @Description("The dashboard tabs filled from a snapshot (on the UI thread)")
+    public static class DashboardShow extends Event {
+        @Label("User")
+        public String user;
+
+        @Label("Items")
+        public int items;
+
+        @Label("Cards Built")
+        @Description("Card components created; cards for rows off screen are not built")
+        public int cardsBuilt;
+    }
+
+    @Name("animetracker.CoverFetch")
+    @Label("Cover Fetch")
+    @Category({"Anime Tracker", "Covers"})
+    @Description("Getting a cover's bytes from the disk cache or the network")
+    public static class CoverFetch extends Event {
+        @Label("URL")
+        public String url;
+
+        @Label("Source")
+        @Description("disk, network, not-modified (304), stale-disk (network failed) or failed")
+        public String source;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("animetracker.CoverDecode")
+    @Label("Cover Decode")
+    @Category({"Anime Tracker", "Covers"})
+    public static class CoverDecode extends Event {
+        @Label("URL")
+        public String url;
+
+        @Label("Width")
+        public int width;
+
+        @Label("Height")
+        public int height;
+
+        @Label("Decoded")
+        @Description("False if the bytes were not a readable image")
+        public boolean decoded;
+    }
+
+    @Name("animetracker.CoverScale")
+    @Label("Cover Scale")
+    @Category({"Anime Tracker", "Covers"})
+    public static class CoverScale extends Event {
+        @Label("URL")
+        public String url;
+
+        @Label("Source Width")
+        public int sourceWidth;
+
+        @Label("Source Height")
+        public int sourceHeight;
+
+        @Label("Width")
+        public int width;
+
+        @Label("Height")
+        public int height;
+    }
+}
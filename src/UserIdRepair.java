@@ -0,0 +1,97 @@
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * One-time repair of user list entries whose SHOW_ID is not a catalog ID
+ * (older files stored titles there). Each such entry is matched to a show by
+ * title: exact, then with a leading "The ", then the best title search match.
+ * The lookups go through maps and the title index instead of scanning the
+ * catalog per entry; only stored text under three characters, which the
+ * index does not search inside words, falls back to a scan.
+ *
+ * TrackerAPI runs the repair when a user logs in for the first time after an
+ * upgrade and then marks the file clean (users/<name>.clean); delete the
+ * marker to have it checked again. Run this class to repair every user at
+ * once:
+ *
+ *   java UserIdRepair          repair users not yet marked clean
+ *   java UserIdRepair --force  check every user again
+ */
+public class UserIdRepair {
+    // What a repair changed in one user's list
+    public static class Report {
+        public final String username;
+        public int checked;
+        public final List<String> fixed = new ArrayList<>();
+        public final List<String> merged = new ArrayList<>();
+        public final List<String> unresolved = new ArrayList<>();
+
+        Report(String username) {
+            this.username = username;
+        }
+
+        public boolean changed() {
+            return !fixed.isEmpty() || !merged.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(username + ": " + checked + " entries checked, "
+                + fixed.size() + " fixed, " + merged.size() + " merged, " + unresolved.size() + " unresolved");
+            for (String s : fixed) sb.append("\n  fixed      ").append(s);
+            for (String s : merged) sb.append("\n  merged     ").append(s);
+            for (String s : unresolved) sb.append("\n  unresolved ").append(s);
+            return sb.toString();
+        }
+    }
+
+    // Maps a stored ID that is not in the catalog to the show it most likely meant
+    static class Resolver<T extends Show> {
+        private final List<T> catalog;
+        private final Map<String, T> byTitle = new HashMap<>();
+        private final BiFunction<String, Integer, List<T>> search;
+
+        Resolver(List<T> catalog, BiFunction<String, Integer, List<T>> search) {
+            this.catalog = catalog;
+            this.search = search;
+            for (T show : catalog) {
+                // first occurrence wins, as the old linear scan did
+                byTitle.putIfAbsent(TitleSearchIndex.normalize(show.getTitle()), show);
+            }
+        }
+
+        // Returns the matching show, or null
+        T resolve(String storedId) {
+            String candidate = TitleSearchIndex.normalize(storedId);
+            if (candidate.isEmpty()) return null;
+            T show = byTitle.get(candidate);
+            if (show == null) show = byTitle.get("the " + candidate);
+            if (show == null) {
+                // a title containing the stored text
+                List<T> hits = search.apply(storedId, 1);
+                if (!hits.isEmpty()) show = hits.get(0);
+                else if (candidate.length() < 3) show = firstContaining(candidate);
+            }
+            return show;
+        }
+
+        // The first show in catalog order whose title contains candidate, as the old lookup did
+        private T firstContaining(String candidate) {
+            for (T show : catalog) {
+                if (TitleSearchIndex.normalize(show.getTitle()).contains(candidate)) return show;
+            }
+            return null;
+        }
+    }
+
+    public static void main(String[] args) {
+        boolean force = args.length > 0 && "--force".equals(args[0]);
+        List<Report> reports = new TrackerAPI().repairAllUsers(force);
+        int changed = 0;
+        for (Report report : reports) {
+            System.out.println(report);
+            if (report.changed()) changed++;
+        }
+        System.out.println(reports.size() + " users checked, " + changed + " changed");
+    }
+}
@@ -0,0 +1,312 @@
+import java.util.*;
+
+/**
+ * In-memory copy of one user's list file (users/<name>.txt), kept in file
+ * order, so writing the list back only changes the lines that were actually
+ * edited.
+ *
+ * Entries are stored column-wise in primitive arrays rather than as one
+ * object per entry: a show ID (a UUID) as two longs, type and status as enum
+ * ordinals, progress as an int and the rating as a byte, found through an
+ * open-addressing table of slot numbers. That is about 40 bytes per entry
+ * (including spare capacity) instead of the ~350 a LinkedHashMap of
+ * UserShowEntry objects and key strings took. IDs that are not UUIDs
+ * (titles in older files, until UserIdRepair has run) are kept as Strings on
+ * the side.
+ *
+ * get() and getEntries() return UserShowEntry copies; change an entry with
+ * put().
+ */
+public class UserList {
+    private int size;
+    private long[] idHigh = new long[16];
+    private long[] idLow = new long[16];
+    // ID of each slot that is not a UUID; null until some entry needs it
+    private String[] otherIds;
+    private byte[] types = new byte[16];
+    private byte[] statuses = new byte[16];
+    private int[] progress = new int[16];
+    private byte[] ratings = new byte[16];
+    // slot + 1 for each entry, at its hash; 0 is empty. At most half full.
+    private int[] table = new int[32];
+
+    // Lines that could not be parsed are kept so a rewrite does not drop them
+    private final List<String> unparsedLines = new ArrayList<>();
+
+    static String key(String type, String showId) {
+        return type + "|" + showId;
+    }
+
+    // Adds the reader's current (non-blank) TYPE|SHOW_ID|STATUS|PROGRESS|RATING line.
+    public void addRecord(RecordReader r) {
+        UserShowEntry entry = parseRecord(r, 0);
+        if (entry == null) {
+            unparsedLines.add(r.line());
+            return;
+        }
+        // the first line wins if a show is listed twice
+        add(entry);
+    }
+
+    /**
+     * Returns the entry for the TYPE|SHOW_ID|STATUS|PROGRESS|RATING fields of
+     * the reader's current line, starting at field first, or null if they are
+     * malformed, have an unknown type or status, or a rating outside -1 to 10.
+     */
+    static UserShowEntry parseRecord(RecordReader r, int first) {
+        if (r.fieldCount() - first < 4) return null;
+        ShowType type = null;
+        for (ShowType t : ShowType.values()) {
+            if (r.fieldEquals(first, t.name())) type = t;
+        }
+        EntryStatus status = null;
+        for (EntryStatus s : EntryStatus.values()) {
+            if (r.fieldEquals(first + 2, s.getLabel())) status = s;
+        }
+        if (type == null || status == null) return null;
+        int prog = r.intField(first + 3, 0);
+        int rating = r.intField(first + 4, -1);
+        if (!isValidRating(rating)) return null;
+        UserShowEntry entry = new UserShowEntry(status.getLabel(), prog, rating);
+        entry.setType(type.name());
+        entry.setShowId(r.string(first + 1));
+        return entry;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public UserShowEntry get(String type, String showId) {
+        int slot = find(type, showId);
+        return slot < 0 ? null : entryAt(slot);
+    }
+
+    public boolean contains(String type, String showId) {
+        return find(type, showId) >= 0;
+    }
+
+    // Adds the entry unless the show is already listed; returns false on duplicates.
+    public boolean add(UserShowEntry entry) {
+        if (find(entry.getType(), entry.getShowId()) >= 0) return false;
+        append(entry);
+        return true;
+    }
+
+    // Adds or replaces the entry; a replaced entry keeps its position.
+    public void put(UserShowEntry entry) {
+        int slot = find(entry.getType(), entry.getShowId());
+        if (slot < 0) append(entry);
+        else setFields(slot, entry);
+    }
+
+    public UserShowEntry remove(String type, String showId) {
+        int slot = find(type, showId);
+        if (slot < 0) return null;
+        UserShowEntry removed = entryAt(slot);
+        int moved = size - slot - 1;
+        System.arraycopy(idHigh, slot + 1, idHigh, slot, moved);
+        System.arraycopy(idLow, slot + 1, idLow, slot, moved);
+        if (otherIds != null) {
+            System.arraycopy(otherIds, slot + 1, otherIds, slot, moved);
+            otherIds[size - 1] = null;
+        }
+        System.arraycopy(types, slot + 1, types, slot, moved);
+        System.arraycopy(statuses, slot + 1, statuses, slot, moved);
+        System.arraycopy(progress, slot + 1, progress, slot, moved);
+        System.arraycopy(ratings, slot + 1, ratings, slot, moved);
+        size--;
+        // every later slot moved down; removals are rare enough to just rehash
+        rehash(table.length);
+        return removed;
+    }
+
+    /**
+     * Re-keys an entry in place (keeps its position in the file). If the list
+     * already has newId, that entry is kept and the old one dropped.
+     */
+    public void replaceShowId(String type, String oldId, String newId) {
+        int slot = find(type, oldId);
+        if (slot < 0) return;
+        if (find(type, newId) >= 0) {
+            remove(type, oldId);
+            return;
+        }
+        setId(slot, newId);
+        rehash(table.length);
+    }
+
+    // Entries of one type (ANIME or MANGA), in file order.
+    public List<UserShowEntry> getEntries(String type) {
+        List<UserShowEntry> result = new ArrayList<>();
+        ShowType t = ShowType.of(type);
+        if (t == null) return result;
+        for (int slot = 0; slot < size; slot++) {
+            if (types[slot] == t.ordinal()) result.add(entryAt(slot));
+        }
+        return result;
+    }
+
+    // Entries of one type grouped by status (every status present, possibly empty), in file order.
+    public EnumMap<EntryStatus, List<UserShowEntry>> groupByStatus(ShowType type) {
+        EnumMap<EntryStatus, List<UserShowEntry>> groups = new EnumMap<>(EntryStatus.class);
+        for (EntryStatus s : EntryStatus.values()) groups.put(s, new ArrayList<>());
+        for (int slot = 0; slot < size; slot++) {
+            if (types[slot] == type.ordinal()) {
+                groups.get(EntryStatus.byCode(statuses[slot])).add(entryAt(slot));
+            }
+        }
+        return groups;
+    }
+
+    public List<String> toLines() {
+        List<String> lines = new ArrayList<>(size + unparsedLines.size());
+        for (int slot = 0; slot < size; slot++) {
+            lines.add(ShowType.byCode(types[slot]).name() + "|" + RecordReader.escape(idAt(slot)) + "|"
+                + EntryStatus.byCode(statuses[slot]).getLabel() + "|" + progress[slot] + "|" + ratings[slot]);
+        }
+        lines.addAll(unparsedLines);
+        return lines;
+    }
+
+    static String toLine(UserShowEntry e) {
+        return e.getType() + "|" + RecordReader.escape(e.getShowId()) + "|" + RecordReader.escape(e.getStatus())
+            + "|" + e.getProgress() + "|" + e.getRating();
+    }
+
+    private UserShowEntry entryAt(int slot) {
+        UserShowEntry entry = new UserShowEntry(EntryStatus.byCode(statuses[slot]).getLabel(), progress[slot], ratings[slot]);
+        entry.setType(ShowType.byCode(types[slot]).name());
+        entry.setShowId(idAt(slot));
+        return entry;
+    }
+
+    private String idAt(int slot) {
+        if (otherIds != null && otherIds[slot] != null) return otherIds[slot];
+        return formatUuid(idHigh[slot], idLow[slot]);
+    }
+
+    private void append(UserShowEntry entry) {
+        ShowType type = ShowType.of(entry.getType());
+        if (type == null) throw new IllegalArgumentException("Unknown type: " + entry.getType());
+        if (size == types.length) grow();
+        types[size] = (byte) type.ordinal();
+        setId(size, entry.getShowId());
+        setFields(size, entry);
+        size++;
+        if (size * 2 > table.length) rehash(table.length * 2);
+        else insert(size - 1);
+    }
+
+    private void setFields(int slot, UserShowEntry entry) {
+        EntryStatus status = EntryStatus.of(entry.getStatus());
+        if (status == null) throw new IllegalArgumentException("Unknown status: " + entry.getStatus());
+        if (!isValidRating(entry.getRating())) throw new IllegalArgumentException("Rating out of range: " + entry.getRating());
+        statuses[slot] = (byte) status.ordinal();
+        progress[slot] = entry.getProgress();
+        ratings[slot] = (byte) entry.getRating();
+    }
+
+    // -1 (no rating) or 0-10
+    static boolean isValidRating(int rating) {
+        return rating >= -1 && rating <= 10;
+    }
+
+    private void setId(int slot, String showId) {
+        if (isUuid(showId)) {
+            idHigh[slot] = uuidHigh(showId);
+            idLow[slot] = uuidLow(showId);
+            if (otherIds != null) otherIds[slot] = null;
+        } else {
+            if (otherIds == null) otherIds = new String[types.length];
+            otherIds[slot] = showId;
+        }
+    }
+
+    private void grow() {
+        int capacity = types.length * 2;
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+        if (otherIds != null) otherIds = Arrays.copyOf(otherIds, capacity);
+        types = Arrays.copyOf(types, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        progress = Arrays.copyOf(progress, capacity);
+        ratings = Arrays.copyOf(ratings, capacity);
+    }
+
+    // Returns the slot of the entry, or -1
+    private int find(String type, String showId) {
+        ShowType t = ShowType.of(type);
+        if (t == null || showId == null) return -1;
+        boolean uuid = isUuid(showId);
+        long high = uuid ? uuidHigh(showId) : 0;
+        long low = uuid ? uuidLow(showId) : 0;
+        int mask = table.length - 1;
+        int i = uuid ? hash(t.ordinal(), high, low) & mask : hash(t.ordinal(), showId) & mask;
+        for (; table[i] != 0; i = (i + 1) & mask) {
+            int slot = table[i] - 1;
+            if (types[slot] != t.ordinal()) continue;
+            String other = otherIds == null ? null : otherIds[slot];
+            if (uuid ? other == null && idHigh[slot] == high && idLow[slot] == low : showId.equals(other)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(int slot) {
+        int mask = table.length - 1;
+        String other = otherIds == null ? null : otherIds[slot];
+        int i = other == null ? hash(types[slot], idHigh[slot], idLow[slot]) & mask : hash(types[slot], other) & mask;
+        while (table[i] != 0) i = (i + 1) & mask;
+        table[i] = slot + 1;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        for (int slot = 0; slot < size; slot++) insert(slot);
+    }
+
+    private static int hash(int type, long high, long low) {
+        long h = (high * 31 + low) * 31 + type;
+        h *= 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32);
+    }
+
+    private static int hash(int type, String id) {
+        return hash(type, id.hashCode(), 1);
+    }
+
+    // True for the canonical lower-case 8-4-4-4-12 form UUID.toString() produces
+    private static boolean isUuid(String s) {
+        if (s.length() != 36) return false;
+        for (int i = 0; i < 36; i++) {
+            char c = s.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return false;
+            } else if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The two halves of a UUID string, laid out as java.util.UUID does
+    private static long uuidHigh(String s) {
+        return parseHex(s, 0, 8) << 32 | parseHex(s, 9, 13) << 16 | parseHex(s, 14, 18);
+    }
+
+    private static long uuidLow(String s) {
+        return parseHex(s, 19, 23) << 48 | parseHex(s, 24, 36);
+    }
+
+    private static long parseHex(String s, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) value = value << 4 | Character.digit(s.charAt(i), 16);
+        return value;
+    }
+
+    private static String formatUuid(long high, long low) {
+        return new UUID(high, low).toString();
+    }
+}
@@ -0,0 +1,171 @@
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Reads and writes users/<name>.txt.
+ *
+ * In journaled mode a change is not written by rewriting the whole file:
+ * it is appended as one record to users/<name>.journal instead
+ * ("U|TYPE|SHOW_ID|STATUS|PROGRESS|RATING" to add or replace an entry,
+ * "D|TYPE|SHOW_ID" to remove one). Loading replays the journal on top of the
+ * .txt snapshot, and once the journal grows past a size threshold a background
+ * thread folds it back into the snapshot.
+ *
+ * Any journal left on disk is replayed even when journaling is off, so the
+ * mode can be switched without losing changes.
+ *
+ * Snapshots are always replaced through AtomicFileWriter, so a crash during a
+ * rewrite or compaction cannot lose the existing list.
+ */
+public class UserListStore {
+    private static final String JOURNAL_EXT = ".journal";
+
+    private final String usersDir;
+    private final boolean journaled;
+    private final long compactThresholdBytes;
+    private final AtomicFileWriter fileWriter;
+
+    // One lock per user so appends and a background compaction never interleave
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private final Set<String> compactionsPending = ConcurrentHashMap.newKeySet();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "user-journal-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public UserListStore(String usersDir, boolean journaled, long compactThresholdBytes, AtomicFileWriter fileWriter) {
+        this.usersDir = usersDir;
+        this.journaled = journaled;
+        this.compactThresholdBytes = compactThresholdBytes;
+        this.fileWriter = fileWriter;
+    }
+
+    public AtomicFileWriter getFileWriter() { return fileWriter; }
+
+    private File userFile(String username) { return new File(usersDir + username + ".txt"); }
+    private File journalFile(String username) { return new File(usersDir + username + JOURNAL_EXT); }
+    private Object lockFor(String username) { return locks.computeIfAbsent(username, k -> new Object()); }
+
+    // Loads the snapshot and replays any journal; returns null if the user has no file.
+    public UserList load(String username) throws IOException {
+        synchronized (lockFor(username)) {
+            if (!userFile(username).exists()) return null;
+            AtomicFileWriter.deleteStaleTemps(userFile(username));
+            // a record torn by a crash would otherwise swallow the next one appended after it
+            AtomicFileWriter.truncateTornLine(journalFile(username));
+            UserList list = readFromDisk(username);
+            if (!journaled && journalFile(username).exists()) {
+                // journaling was switched off: fold the leftover journal in now
+                writeSnapshot(username, list);
+            }
+            return list;
+        }
+    }
+
+    // Records a newly added entry.
+    public void add(String username, UserShowEntry entry) throws IOException {
+        synchronized (lockFor(username)) {
+            if (journaled) {
+                appendJournal(username, "U|" + UserList.toLine(entry));
+            } else {
+                fileWriter.appendLine(userFile(username), UserList.toLine(entry));
+            }
+        }
+    }
+
+    // Records a changed entry; list is the caller's in-memory state, already updated.
+    public void update(String username, UserList list, UserShowEntry entry) throws IOException {
+        synchronized (lockFor(username)) {
+            if (journaled) appendJournal(username, "U|" + UserList.toLine(entry));
+            else writeSnapshot(username, list);
+        }
+    }
+
+    // Records a removed entry; list is the caller's in-memory state, already updated.
+    public void remove(String username, UserList list, String type, String showId) throws IOException {
+        synchronized (lockFor(username)) {
+            if (journaled) appendJournal(username, "D|" + type + "|" + RecordReader.escape(showId));
+            else writeSnapshot(username, list);
+        }
+    }
+
+    // Writes the whole list as the new snapshot (and drops the journal).
+    public void rewrite(String username, UserList list) throws IOException {
+        synchronized (lockFor(username)) {
+            writeSnapshot(username, list);
+        }
+    }
+
+    private UserList readFromDisk(String username) throws IOException {
+        TrackerEvents.UserFileRead event = new TrackerEvents.UserFileRead();
+        event.begin();
+        UserList list = new UserList();
+        File userFile = userFile(username);
+        Metrics.fileBytes(userFile, "bytesRead", Metrics.ENABLED ? userFile.length() : 0);
+        try (RecordReader reader = RecordReader.open(userFile)) {
+            while (reader.next()) {
+                if (!reader.isBlank()) list.addRecord(reader);
+            }
+        }
+        File journal = journalFile(username);
+        if (journal.exists()) {
+            Metrics.fileBytes(journal, "bytesRead", Metrics.ENABLED ? journal.length() : 0);
+            try (RecordReader reader = RecordReader.open(journal)) {
+                while (reader.next()) {
+                    replay(list, reader);
+                }
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.user = username;
+            event.entries = list.size();
+            event.bytes = userFile.length();
+            event.journalBytes = journal.length();
+            event.commit();
+        }
+        return list;
+    }
+
+    private static void replay(UserList list, RecordReader record) {
+        if (record.fieldEquals(0, "U")) {
+            UserShowEntry entry = UserList.parseRecord(record, 1);
+            if (entry != null) list.put(entry);
+        } else if (record.fieldEquals(0, "D") && record.fieldCount() >= 3) {
+            list.remove(record.string(1), record.string(2));
+        }
+        // anything else is a malformed record; skip it (a torn last one is cut off at load)
+    }
+
+    private void appendJournal(String username, String record) throws IOException {
+        File journal = journalFile(username);
+        fileWriter.appendLine(journal, record);
+        if (journal.length() > compactThresholdBytes && compactionsPending.add(username)) {
+            compactor.submit(() -> compact(username));
+        }
+    }
+
+    // Folds the journal back into the snapshot. Runs on the compactor thread.
+    private void compact(String username) {
+        synchronized (lockFor(username)) {
+            compactionsPending.remove(username);
+            try {
+                if (!journalFile(username).exists()) return;
+                writeSnapshot(username, readFromDisk(username));
+            } catch (IOException e) {
+                // leave the journal in place; it is replayed on the next load
+            }
+        }
+    }
+
+    private void writeSnapshot(String username, UserList list) throws IOException {
+        fileWriter.writeLines(userFile(username), list.toLines());
+        // the snapshot now contains everything the journal recorded
+        File journal = journalFile(username);
+        if (journal.exists() && !journal.delete()) {
+            throw new IOException("Could not delete " + journal);
+        }
+    }
+}
@@ -2,6 +2,7 @@ public class UserShowEntry {
     private String status;
     private int progress;
     private String showId;
+    private String type; // ANIME or MANGA
     private int rating; // -1 = not rated, otherwise 0-10
 
     public UserShowEntry(String status, int progress) {
@@ -19,8 +20,17 @@ public class UserShowEntry {
     public int getProgress() { return progress; }
     public String getShowId() { return showId; }
     public void setShowId(String showId) { this.showId = showId; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
     public int getRating() { return rating; }
     public void setRating(int rating) { this.rating = rating; }
     public void setProgress(int progress) { this.progress = progress; }
     public void setStatus(String status) { this.status = status; }
+
+    public UserShowEntry copy() {
+        UserShowEntry e = new UserShowEntry(status, progress, rating);
+        e.setShowId(showId);
+        e.setType(type);
+        return e;
+    }
 }
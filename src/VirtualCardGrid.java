@@ -0,0 +1,166 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Two-column grid of cards that only creates components for the rows in view.
+ *
+ * The grid holds plain model items. As the viewport moves, cards for rows that
+ * scroll out of view (beyond a small overscan) are removed and rebound to the
+ * rows scrolling in, so a tab with thousands of entries keeps a few dozen
+ * cards alive and only requests covers that are about to be seen.
+ * All rows have the same height (Card.preferredHeight()), which lets the grid
+ * size itself and find the visible rows without measuring any card.
+ */
+public class VirtualCardGrid extends JPanel implements Scrollable {
+    private static final int COLUMNS = 2;
+    private static final int GAP = 10;
+    private static final int OVERSCAN_ROWS = 2;
+
+    private final Function<DashboardSnapshot.Item<?>, Card> cardFactory;
+    private final List<DashboardSnapshot.Item<?>> items = new ArrayList<>();
+    // Cards currently on screen, by item index, and unbound cards ready for reuse
+    private final Map<Integer, Card> boundCards = new HashMap<>();
+    private final Deque<Card> spareCards = new ArrayDeque<>();
+
+    public VirtualCardGrid(Function<DashboardSnapshot.Item<?>, Card> cardFactory) {
+        super(null);
+        this.cardFactory = cardFactory;
+        setBackground(Color.WHITE);
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+    }
+
+    public void setItems(List<? extends DashboardSnapshot.Item<?>> newItems) {
+        items.clear();
+        items.addAll(newItems);
+        // cards from a previous user are not worth keeping
+        spareCards.clear();
+        boundCards.clear();
+        removeAll();
+        modelChanged();
+    }
+
+    public void addItem(DashboardSnapshot.Item<?> item) {
+        items.add(item);
+        modelChanged();
+    }
+
+    public void removeItem(DashboardSnapshot.Item<?> item) {
+        if (items.remove(item)) modelChanged();
+    }
+
+    // Rebinds the item's card if it is on screen (progress/rating changed).
+    public void itemChanged(DashboardSnapshot.Item<?> item) {
+        Card card = boundCards.get(items.indexOf(item));
+        if (card != null) card.bind(item.getShow(), item.getEntry());
+    }
+
+    private void modelChanged() {
+        // indices shifted, so every on-screen card is rebound
+        releaseAll();
+        revalidate();
+        updateVisibleCards();
+        repaint();
+    }
+
+    private void releaseAll() {
+        for (Card card : boundCards.values()) {
+            remove(card);
+            spareCards.push(card);
+        }
+        boundCards.clear();
+    }
+
+    private int rowStride() {
+        return Card.preferredHeight() + GAP;
+    }
+
+    private int rowCount() {
+        return (items.size() + COLUMNS - 1) / COLUMNS;
+    }
+
+    // Binds cards to the rows in (or near) the viewport and releases the rest.
+    private void updateVisibleCards() {
+        Insets insets = getInsets();
+        Rectangle view = getVisibleRect();
+        int stride = rowStride();
+        int firstRow = Math.max(0, (view.y - insets.top) / stride - OVERSCAN_ROWS);
+        int lastRow = Math.min(rowCount() - 1, (view.y + view.height - insets.top) / stride + OVERSCAN_ROWS);
+        int firstIndex = firstRow * COLUMNS;
+        int lastIndex = Math.min(items.size() - 1, (lastRow + 1) * COLUMNS - 1);
+
+        Iterator<Map.Entry<Integer, Card>> it = boundCards.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Card> e = it.next();
+            if (e.getKey() < firstIndex || e.getKey() > lastIndex) {
+                remove(e.getValue());
+                spareCards.push(e.getValue());
+                it.remove();
+            }
+        }
+
+        int columnWidth = Math.max(0, (getWidth() - insets.left - insets.right - GAP * (COLUMNS - 1)) / COLUMNS);
+        for (int i = firstIndex; i <= lastIndex; i++) {
+            Card card = boundCards.get(i);
+            if (card == null) {
+                DashboardSnapshot.Item<?> item = items.get(i);
+                card = spareCards.poll();
+                if (card == null) card = cardFactory.apply(item);
+                card.bind(item.getShow(), item.getEntry());
+                add(card);
+                boundCards.put(i, card);
+            }
+            int row = i / COLUMNS;
+            int col = i % COLUMNS;
+            card.setBounds(insets.left + col * (columnWidth + GAP), insets.top + row * stride,
+                columnWidth, Card.preferredHeight());
+        }
+    }
+
+    @Override
+    public void doLayout() {
+        updateVisibleCards();
+    }
+
+    // The viewport scrolls by moving this panel, which always ends up here
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        super.setBounds(x, y, width, height);
+        updateVisibleCards();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        Insets insets = getInsets();
+        int rows = rowCount();
+        int height = insets.top + insets.bottom + rows * rowStride();
+        return new Dimension(420 * COLUMNS + GAP + insets.left + insets.right, height);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return 16;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -0,0 +1,140 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Debounces writes per key. Scheduling a write for a key that already has one
+ * pending replaces it and restarts the delay, so a burst of changes to one
+ * entry (ten clicks on +1) ends in a single write of its final state.
+ *
+ * Pending writes run on a daemon thread when their delay expires, and can be
+ * forced out with flush(owner) / flushAll(); one shutdown hook flushes every
+ * coalescer not yet closed, so nothing scheduled is lost when the JVM exits
+ * normally. close() writes what is pending and stops the thread.
+ */
+public class WriteCoalescer implements Closeable {
+    // A deferred write; it should persist whatever the current state is when it runs
+    @FunctionalInterface
+    public interface Write {
+        void run() throws IOException;
+    }
+
+    private static class Pending {
+        final String owner;
+        final Write write;
+        final ScheduledFuture<?> timer;
+
+        Pending(String owner, Write write, ScheduledFuture<?> timer) {
+            this.owner = owner;
+            this.write = write;
+            this.timer = timer;
+        }
+    }
+
+    // Coalescers not yet closed; weak, as one with writes pending is still held by its timer
+    private static final Set<WriteCoalescer> live = Collections.newSetFromMap(new WeakHashMap<>());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(WriteCoalescer::flushLive, "user-write-flush"));
+    }
+
+    private final long delayMs;
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+    // Held while writes run, so a flush waits for a write already in progress
+    private final Object runLock = new Object();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "user-write-coalescer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public WriteCoalescer(long delayMs) {
+        this.delayMs = delayMs;
+        synchronized (live) {
+            live.add(this);
+        }
+        // edits waiting to be written (the first coalescer created, i.e. the app's)
+        Metrics.gauge("WriteCoalescer.pending", this::pendingCount);
+    }
+
+    public long getDelayMs() { return delayMs; }
+
+    /**
+     * Runs write after the delay unless another write for key arrives first.
+     * owner groups keys for flush(owner) (the username).
+     */
+    public synchronized void schedule(String owner, String key, Write write) {
+        Pending old = pending.remove(key);
+        if (old != null) old.timer.cancel(false);
+        ScheduledFuture<?> t = timer.schedule(() -> runPending(key), delayMs, TimeUnit.MILLISECONDS);
+        pending.put(key, new Pending(owner, write, t));
+    }
+
+    // Writes everything pending for owner now (logout, before reloading the user).
+    public void flush(String owner) {
+        List<String> keys = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, Pending> e : pending.entrySet()) {
+                if (e.getValue().owner.equals(owner)) keys.add(e.getKey());
+            }
+        }
+        for (String key : keys) runPending(key);
+    }
+
+    // Writes everything pending now (window close, JVM shutdown).
+    public void flushAll() {
+        List<String> keys;
+        synchronized (this) {
+            keys = new ArrayList<>(pending.keySet());
+        }
+        for (String key : keys) runPending(key);
+    }
+
+    // Writes everything pending and stops the timer thread; nothing may be scheduled afterwards.
+    @Override
+    public void close() {
+        synchronized (live) {
+            live.remove(this);
+        }
+        flushAll();
+        // a write that failed during the flush still gets its retry before the thread ends
+        timer.shutdown();
+    }
+
+    private static void flushLive() {
+        List<WriteCoalescer> coalescers;
+        synchronized (live) {
+            coalescers = new ArrayList<>(live);
+        }
+        for (WriteCoalescer c : coalescers) c.flushAll();
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    private void runPending(String key) {
+        synchronized (runLock) {
+            Pending p;
+            synchronized (this) {
+                p = pending.remove(key);
+            }
+            if (p == null) return; // already written by a flush or an earlier timer
+            p.timer.cancel(false);
+            try {
+                p.write.run();
+            } catch (IOException e) {
+                System.err.println("Could not save " + key + ": " + e.getMessage() + " (will retry)");
+                retry(key, p);
+            }
+        }
+    }
+
+    // Puts a failed write back unless a newer one for the same key has been scheduled.
+    private synchronized void retry(String key, Pending failed) {
+        if (pending.containsKey(key) || timer.isShutdown()) return;
+        ScheduledFuture<?> t = timer.schedule(() -> runPending(key), Math.max(delayMs, 1000), TimeUnit.MILLISECONDS);
+        pending.put(key, new Pending(failed.owner, failed.write, t));
+    }
+}